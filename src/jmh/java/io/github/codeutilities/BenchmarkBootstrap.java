@@ -0,0 +1,38 @@
+package io.github.codeutilities;
+
+import io.github.codeutilities.config.impl.MiscGroup;
+import io.github.codeutilities.config.impl.StreamerModeGroup;
+import io.github.codeutilities.config.structure.ConfigGroup;
+import io.github.codeutilities.config.structure.ConfigManager;
+import io.github.codeutilities.config.types.IntegerSetting;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+
+/**
+ * Initializes the Minecraft registries so that item and sound backed enums can be loaded without a running client,
+ * and registers the config settings read while scripts run and chat messages are checked.
+ */
+public class BenchmarkBootstrap {
+
+    private static boolean initialized = false;
+
+    public static synchronized void init() {
+        if (!initialized) {
+            SharedConstants.createGameVersion();
+            Bootstrap.initialize();
+
+            CodeUtilities.PLAYER_NAME = "";
+            ConfigManager config = new ConfigManager();
+            ConfigGroup misc = new MiscGroup("misc");
+            misc.initialize();
+            config.register(misc);
+            ConfigGroup streamer = new StreamerModeGroup("streamer");
+            streamer.initialize();
+            config.register(streamer);
+            // The tick never advances here, so any budget would suspend every script after the first tick's worth
+            config.find("scriptInstructionBudget").<IntegerSetting>cast().setValue(0);
+            config.find("scriptTimeBudget").<IntegerSetting>cast().setValue(0);
+            initialized = true;
+        }
+    }
+}
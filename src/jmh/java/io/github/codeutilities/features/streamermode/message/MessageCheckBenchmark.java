@@ -0,0 +1,86 @@
+package io.github.codeutilities.features.streamermode.message;
+
+import io.github.codeutilities.BenchmarkBootstrap;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Classifies every line of chat-corpus.txt, once by trying each check in order and once through the {@link MessageClassifier}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCheckBenchmark {
+
+    private String[] corpus;
+    private MessageCheck[] checks;
+    private MessageClassifier classifier;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkBootstrap.init();
+        checks = MessageCheck.getChecks();
+        classifier = MessageCheck.getClassifier();
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            Objects.requireNonNull(getClass().getResourceAsStream("chat-corpus.txt")), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#")) {
+                    lines.add(line.replace("\\n", "\n"));
+                }
+            }
+        }
+        corpus = lines.toArray(new String[0]);
+
+        for (String message : corpus) {
+            if (sequential(message) != classifier.classify(null, message)) {
+                throw new IllegalStateException("Classifier disagrees on: " + message);
+            }
+        }
+    }
+
+    private MessageCheck sequential(String stripped) {
+        for (MessageCheck check : checks) {
+            if (check.check(null, stripped)) {
+                return check;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void checkInOrder(Blackhole bh) {
+        for (String message : corpus) {
+            bh.consume(sequential(message));
+        }
+    }
+
+    @Benchmark
+    public void classifier(Blackhole bh) {
+        for (String message : corpus) {
+            bh.consume(classifier.classify(null, message));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.codeutilities.script;
+
+import io.github.codeutilities.BenchmarkBootstrap;
+import io.github.codeutilities.event.TickEvent;
+import io.github.codeutilities.script.action.ScriptAction;
+import io.github.codeutilities.script.action.ScriptActionType;
+import io.github.codeutilities.script.argument.ScriptArgument;
+import io.github.codeutilities.script.argument.ScriptNumberArgument;
+import io.github.codeutilities.script.argument.ScriptTextArgument;
+import io.github.codeutilities.script.execution.ScriptPosStack;
+import io.github.codeutilities.script.execution.ScriptTask;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptActionBindBenchmark {
+
+    private List<ScriptArgument> titleArguments;
+    private Script script;
+    private ScriptAction increment;
+    private ScriptTask task;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+
+        // Title, Subtitle, Fade In, Stay, Fade Out - four optional arguments
+        titleArguments = List.of(
+            new ScriptTextArgument("Title"),
+            new ScriptTextArgument("Subtitle"),
+            new ScriptNumberArgument(10),
+            new ScriptNumberArgument(60),
+            new ScriptNumberArgument(10)
+        );
+
+        increment = SyntheticScripts.action(ScriptActionType.INCREMENT, SyntheticScripts.var("counter"), SyntheticScripts.num(1));
+        script = new Script("Bind", List.of(increment), false);
+        task = new ScriptTask(new ScriptPosStack(0), new TickEvent(), script, script.compile());
+    }
+
+    @Benchmark
+    public Map<String, List<ScriptArgument>> bindOptionalArguments() {
+        return ScriptActionType.DISPLAY_TITLE.bind(titleArguments);
+    }
+
+    @Benchmark
+    public Script invokeCachedBinding() {
+        increment.invoke(task.event(), script.getContext(), null, task, script);
+        return script;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.codeutilities.script;
+
+import io.github.codeutilities.script.execution.ScriptContext;
+import io.github.codeutilities.script.values.ScriptNumberValue;
+import io.github.codeutilities.script.values.ScriptValue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptContextBenchmark {
+
+    @Param({"10", "1000"})
+    public int variables;
+
+    private ScriptContext context;
+    private int slot;
+    private String name;
+
+    @Setup
+    public void setup() {
+        context = new ScriptContext();
+        for (int i = 0; i < variables; i++) {
+            context.setVariable("var" + i, ScriptNumberValue.of(i));
+        }
+        name = "var" + (variables / 2);
+        slot = context.resolve(name);
+    }
+
+    @Benchmark
+    public ScriptValue getBySlot() {
+        return context.getVariable(slot);
+    }
+
+    @Benchmark
+    public ScriptValue getByName() {
+        return context.getVariable(name);
+    }
+
+    @Benchmark
+    public ScriptValue getMissing() {
+        return context.getVariable("missing");
+    }
+
+    @Benchmark
+    public ScriptContext incrementBySlot() {
+        context.setVariable(slot, ScriptNumberValue.of(context.getVariable(slot).asNumber() + 1));
+        return context;
+    }
+}
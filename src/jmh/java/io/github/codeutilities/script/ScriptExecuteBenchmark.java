@@ -0,0 +1,71 @@
+package io.github.codeutilities.script;
+
+import io.github.codeutilities.BenchmarkBootstrap;
+import io.github.codeutilities.script.values.ScriptListValue;
+import io.github.codeutilities.script.values.ScriptNumberValue;
+import io.github.codeutilities.script.values.ScriptValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptExecuteBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    private Script nestedRepeat;
+    private Script forEachInList;
+    private Script ifChain;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+
+        nestedRepeat = SyntheticScripts.nestedRepeat(size, size);
+
+        forEachInList = SyntheticScripts.forEachInList("list");
+        List<ScriptValue> list = new ArrayList<>();
+        for (int i = 0; i < size * size; i++) {
+            list.add(ScriptNumberValue.of(i));
+        }
+        forEachInList.getContext().setVariable("list", new ScriptListValue(list));
+
+        ifChain = SyntheticScripts.ifChain(size);
+        ifChain.getContext().setVariable("x", ScriptNumberValue.of(size - 1));
+    }
+
+    @Benchmark
+    public Script nestedRepeat() {
+        SyntheticScripts.run(nestedRepeat);
+        return nestedRepeat;
+    }
+
+    @Benchmark
+    public Script forEachInList() {
+        SyntheticScripts.run(forEachInList);
+        return forEachInList;
+    }
+
+    @Benchmark
+    public Script ifChain() {
+        SyntheticScripts.run(ifChain);
+        return ifChain;
+    }
+}
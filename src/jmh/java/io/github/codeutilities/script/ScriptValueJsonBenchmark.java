@@ -0,0 +1,64 @@
+package io.github.codeutilities.script;
+
+import com.google.gson.JsonElement;
+import io.github.codeutilities.script.util.ScriptValueJson;
+import io.github.codeutilities.script.values.ScriptDictionaryValue;
+import io.github.codeutilities.script.values.ScriptListValue;
+import io.github.codeutilities.script.values.ScriptNumberValue;
+import io.github.codeutilities.script.values.ScriptTextValue;
+import io.github.codeutilities.script.values.ScriptValue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptValueJsonBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ScriptValue value;
+    private JsonElement json;
+
+    @Setup
+    public void setup() {
+        // A list of small dictionaries, like a script storing records in a file
+        List<ScriptValue> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            HashMap<String, ScriptValue> entry = new HashMap<>();
+            entry.put("id", ScriptNumberValue.of(i));
+            entry.put("name", new ScriptTextValue("entry-" + i));
+            entry.put("score", new ScriptNumberValue(i * 1.5));
+            list.add(new ScriptDictionaryValue(entry));
+        }
+        value = new ScriptListValue(list);
+        json = ScriptValueJson.toJson(value);
+    }
+
+    @Benchmark
+    public JsonElement toJson() {
+        return ScriptValueJson.toJson(value);
+    }
+
+    @Benchmark
+    public ScriptValue fromJson() {
+        return ScriptValueJson.fromJson(json);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.codeutilities.script;
+
+import io.github.codeutilities.event.TickEvent;
+import io.github.codeutilities.script.action.ScriptAction;
+import io.github.codeutilities.script.action.ScriptActionType;
+import io.github.codeutilities.script.argument.ScriptArgument;
+import io.github.codeutilities.script.argument.ScriptNumberArgument;
+import io.github.codeutilities.script.argument.ScriptVariableArgument;
+import io.github.codeutilities.script.event.ScriptEvent;
+import io.github.codeutilities.script.event.ScriptEventType;
+import io.github.codeutilities.script.execution.ScriptPosStack;
+import io.github.codeutilities.script.execution.ScriptProgram;
+import io.github.codeutilities.script.execution.ScriptTask;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds scripts for the benchmarks, every script starts with a single OnTick event.
+ */
+public class SyntheticScripts {
+
+    private static final TickEvent EVENT = new TickEvent();
+
+    public static Script nestedRepeat(int outer, int inner) {
+        List<ScriptPart> parts = start();
+        parts.add(action(ScriptActionType.REPEAT_MULTIPLE, num(outer), var("i")));
+        parts.add(action(ScriptActionType.REPEAT_MULTIPLE, num(inner), var("j")));
+        parts.add(action(ScriptActionType.INCREMENT, var("counter"), num(1)));
+        parts.add(close());
+        parts.add(close());
+        return script("NestedRepeat", parts);
+    }
+
+    public static Script forEachInList(String list) {
+        List<ScriptPart> parts = start();
+        parts.add(action(ScriptActionType.SET_VARIABLE, var("sum"), num(0)));
+        parts.add(action(ScriptActionType.FOR_EACH_IN_LIST, var("item"), var(list)));
+        parts.add(action(ScriptActionType.ADD, var("sum"), var("sum"), var("item")));
+        parts.add(close());
+        return script("ForEachInList", parts);
+    }
+
+    public static Script ifChain(int length) {
+        List<ScriptPart> parts = start();
+        for (int i = 0; i < length; i++) {
+            parts.add(action(ScriptActionType.IF_EQUALS, var("x"), num(i)));
+            parts.add(action(ScriptActionType.SET_VARIABLE, var("hit"), num(i)));
+            parts.add(close());
+        }
+        return script("IfChain", parts);
+    }
+
+    public static void run(Script script) {
+        ScriptProgram program = script.getProgram();
+        script.execute(new ScriptTask(new ScriptPosStack(1), EVENT, script, program));
+    }
+
+    private static List<ScriptPart> start() {
+        List<ScriptPart> parts = new ArrayList<>();
+        parts.add(new ScriptEvent(ScriptEventType.TICK_EVENT));
+        return parts;
+    }
+
+    private static Script script(String name, List<ScriptPart> parts) {
+        Script script = new Script(name, parts, false);
+        script.compile();
+        return script;
+    }
+
+    public static ScriptAction action(ScriptActionType type, ScriptArgument... arguments) {
+        return new ScriptAction(type, new ArrayList<>(List.of(arguments)));
+    }
+
+    private static ScriptAction close() {
+        return action(ScriptActionType.CLOSE_BRACKET);
+    }
+
+    public static ScriptArgument num(double value) {
+        return new ScriptNumberArgument(value);
+    }
+
+    public static ScriptArgument var(String name) {
+        return new ScriptVariableArgument(name);
+    }
+}
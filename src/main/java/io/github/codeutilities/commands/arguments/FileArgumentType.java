@@ -11,7 +11,10 @@ public class FileArgumentType {
 
             if (folder.exists()) {
                 for (File f : folder.listFiles()) {
-                    files.add(f.getName());
+                    // Hidden files, like the template cache of songs
+                    if (!f.getName().startsWith(".")) {
+                        files.add(f.getName());
+                    }
                 }
             }
 
@@ -7,16 +7,22 @@ import io.github.codeutilities.CodeUtilities;
 import io.github.codeutilities.commands.Command;
 import io.github.codeutilities.commands.arguments.FileArgumentType;
 import io.github.codeutilities.util.FileUtil;
+import io.github.codeutilities.util.ItemDelivery;
 import io.github.codeutilities.util.ItemUtil;
 import io.github.codeutilities.util.RenderUtil;
+import io.github.codeutilities.util.chat.ChatType;
 import io.github.codeutilities.util.chat.ChatUtil;
+import io.github.codeutilities.util.job.JobManager;
 import io.github.codeutilities.util.nbs.NBSDecoder;
 import io.github.codeutilities.util.nbs.NBSToTemplate;
 import io.github.codeutilities.util.nbs.OutdatedNBSException;
 import io.github.codeutilities.util.nbs.SongData;
+import io.github.codeutilities.util.template.TemplateCache;
 import io.github.codeutilities.util.template.TemplateUtils;
 import java.io.File;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import net.fabricmc.fabric.api.client.command.v1.FabricClientCommandSource;
 import net.minecraft.client.toast.SystemToast;
 import net.minecraft.enchantment.Enchantments;
@@ -25,6 +31,10 @@ import net.minecraft.item.Items;
 import net.minecraft.text.LiteralText;
 
 public class NBSCommand implements Command {
+
+    private static final String JOB_GROUP = "NBS";
+    private static final TemplateCache CACHE = new TemplateCache(FileUtil.cuFolder("NBS").resolve(".cache"));
+
     @Override
     public void register(CommandDispatcher<FabricClientCommandSource> cd) {
         File dir = FileUtil.cuFolder("NBS").toFile();
@@ -57,6 +67,36 @@ public class NBSCommand implements Command {
             )
         );
 
+        cmd.then(literal("loadall")
+            .executes(ctx -> {
+                if (CodeUtilities.MC.player.isCreative()) {
+                    File[] files = dir.listFiles((folder, name) -> name.endsWith(".nbs"));
+                    if (files == null || files.length == 0) {
+                        ChatUtil.error("There are no songs in the NBS folder.");
+                        return 1;
+                    }
+                    Arrays.sort(files);
+
+                    List<Runnable> loads = new ArrayList<>();
+                    for (File file : files) {
+                        loads.add(() -> loadNbs(file, file.getName()));
+                    }
+                    ChatUtil.info("Loading " + files.length + " songs...");
+                    JobManager.submitAll(JOB_GROUP, loads);
+                }
+                return 1;
+            })
+        );
+
+        cmd.then(literal("cancel")
+            .executes(ctx -> {
+                if (JobManager.cancel(JOB_GROUP) == 0) {
+                    ChatUtil.error("No songs are loading.");
+                }
+                return 1;
+            })
+        );
+
         cmd.then(literal("player")
             .executes(ctx -> {
                 if (CodeUtilities.MC.player.isCreative()) {
@@ -77,30 +117,58 @@ public class NBSCommand implements Command {
     }
 
     public static void loadNbs(File file, String fileName) {
-        try {
+        JobManager.submit(JOB_GROUP, fileName, job -> {
+            job.setStatus("Checking cache");
+            String key = CACHE.key(file.toPath(), NBSToTemplate.SONG_PARSER_VERSION);
+            TemplateCache.Entry cached = CACHE.get(key);
+            if (cached != null) {
+                return new LoadedSong(cached, false);
+            }
+            job.checkCancelled();
+
+            job.setStatus("Reading");
             SongData d = NBSDecoder.parse(file);
-            String code = new NBSToTemplate(d).convert();
+            job.checkCancelled();
+            job.setStatus("Generating template");
+            String code = new NBSToTemplate(d).toCodeData();
+            TemplateCache.Entry entry = new TemplateCache.Entry(d.getName(), d.getAuthor(), List.of(code));
+            CACHE.put(key, entry);
+            return new LoadedSong(entry, d.isLegacyFormat());
+        }, loaded -> {
+            TemplateCache.Entry song = loaded.template();
+            if (loaded.legacyFormat()) {
+                ChatUtil.sendMessage("Looks like you are using original Note Block Studio. We recommend you to use Open Note Block Studio, which is an unofficial continuation of Note Block Studio!",
+                        ChatType.FAIL);
+            }
             ItemStack stack = new ItemStack(Items.NOTE_BLOCK);
-            TemplateUtils.compressTemplateNBT(stack, d.getName(), d.getAuthor(), code);
+            TemplateUtils.applyRawTemplateNBT(stack, song.name(), song.author(), song.templates().get(0));
 
-            if (d.getName().length() == 0) {
+            if (song.name().length() == 0) {
                 String name;
-                if (d.getFileName().indexOf(".") > 0) {
-                    name = d.getFileName().substring(0, d.getFileName().lastIndexOf("."));
+                if (fileName.indexOf(".") > 0) {
+                    name = fileName.substring(0, fileName.lastIndexOf("."));
                 } else {
-                    name = d.getFileName();
+                    name = fileName;
                 }
                 stack.setCustomName(new LiteralText("§5Song§7 -§f " + name));
             } else {
-                stack.setCustomName(new LiteralText("§5Song§7 -§f " + d.getName()));
+                stack.setCustomName(new LiteralText("§5Song§7 -§f " + song.name()));
             }
 
             RenderUtil.sendToaster("NBS Loaded!", fileName, SystemToast.Type.NARRATOR_TOGGLE);
-            ItemUtil.giveItem(stack);
-        } catch (OutdatedNBSException e) {
-            RenderUtil.sendToaster("§cLoading Error!", "Unsupported file version", SystemToast.Type.NARRATOR_TOGGLE);
-        } catch (IOException e) {
-            RenderUtil.sendToaster("§cLoading Error!", "Invalid file", SystemToast.Type.NARRATOR_TOGGLE);
-        }
+            ItemDelivery.give(stack);
+        }, e -> {
+            if (e instanceof OutdatedNBSException) {
+                RenderUtil.sendToaster("§cLoading Error!", "Unsupported file version", SystemToast.Type.NARRATOR_TOGGLE);
+            } else {
+                RenderUtil.sendToaster("§cLoading Error!", "Invalid file", SystemToast.Type.NARRATOR_TOGGLE);
+            }
+        });
+    }
+
+    /**
+     * @param legacyFormat Whether the song was saved by the original Note Block Studio, only known when it was not cached
+     */
+    private record LoadedSong(TemplateCache.Entry template, boolean legacyFormat) {
     }
 }
@@ -29,7 +29,7 @@ public class PJoinCommand implements Command {
     		
             if (this.awaitingJoin) {
             	
-            	String stripped = event.getMessage().getString();
+            	String stripped = event.getStripped();
             	
                 String msg = stripped.replaceAll("§.", "");
                 if (msg.startsWith("                                       \n")) {
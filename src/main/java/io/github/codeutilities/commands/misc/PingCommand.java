@@ -20,7 +20,7 @@ public class PingCommand implements Command {
     @Override
     public void register(CommandDispatcher<FabricClientCommandSource> cd) {
         EventManager.getInstance().register(ReceiveChatEvent.class, (event) -> {
-            String message = event.getMessage().getString();
+            String message = event.getStripped();
 
             if (serverPing != 0) {
                 if (message.contains("Use /plot help for plot commands.")) {
@@ -3,6 +3,9 @@ package io.github.codeutilities.commands.misc;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.io.FilenameUtils;
@@ -21,9 +24,13 @@ import io.github.codeutilities.features.commands.schem.loaders.MSchematicReader;
 import io.github.codeutilities.features.commands.schem.loaders.MSpongeSchematicReader;
 import io.github.codeutilities.features.commands.schem.sk89q.jnbt.NBTInputStream;
 import io.github.codeutilities.features.commands.schem.utils.DFUtils;
+import io.github.codeutilities.util.FileUtil;
+import io.github.codeutilities.util.ItemDelivery;
 import io.github.codeutilities.util.ItemUtil;
+import io.github.codeutilities.util.job.JobManager;
 import io.github.codeutilities.util.render.ToasterUtil;
 import io.github.codeutilities.util.chat.ChatUtil;
+import io.github.codeutilities.util.template.TemplateCache;
 import io.github.codeutilities.util.template.TemplateUtils;
 import net.fabricmc.fabric.api.client.command.v1.FabricClientCommandSource;
 import net.minecraft.client.MinecraftClient;
@@ -34,6 +41,9 @@ import net.minecraft.text.LiteralText;
 
 public class SchemCommand implements Command {
 
+    private static final String JOB_GROUP = "Schem2DF";
+    private static final TemplateCache CACHE = new TemplateCache(FileUtil.cuFolder("Schem2DF").resolve("cache"));
+
     public void register(CommandDispatcher<FabricClientCommandSource> cd) {
     	MinecraftClient mc = CodeUtilities.MC;
         cd.register(subcommand(mc, literal("schem")));
@@ -75,71 +85,41 @@ public class SchemCommand implements Command {
                                     }
                                 }
 
-                                final String finalFormat = format;
-                                final File finalFile = target;
-
                                 if (target.exists()) {
-                                    System.out.println(target.exists());
-                                    new Thread(() -> {
-                                        try {
-                                            MSchematicReader reader;
-
-                                            switch (finalFormat) {
-                                                case "schematic":
-                                                    try {
-                                                        NBTInputStream nbtStream = new NBTInputStream(new GZIPInputStream(new FileInputStream(finalFile)));
-                                                        reader = new MCEditSchematicLoader(nbtStream);
-                                                    } catch (IOException ignored) {
-                                                        NBTInputStream nbtStream = new NBTInputStream(new GZIPInputStream(new FileInputStream(finalFile)));
-                                                        reader = new MSpongeSchematicReader(nbtStream);
-                                                    }
-                                                    break;
-                                                case "schem": {
-                                                    NBTInputStream nbtStream = new NBTInputStream(new GZIPInputStream(new FileInputStream(finalFile)));
-                                                    reader = new MSpongeSchematicReader(nbtStream);
-                                                    break;
-                                                }
-                                                case "litematic": {
-                                                    NBTInputStream nbtStream = new NBTInputStream(new GZIPInputStream(new FileInputStream(finalFile)));
-                                                    reader = new LitematicaLoader(nbtStream);
-                                                    break;
-                                                }
-                                                default:
-                                                    ChatUtil.sendMessage(new LiteralText("§c[Schem2DF] The file has to be a litematic, schematic, schem or vanilla nbt format."));
-                                                    return;
-                                            }
-
-                                            ChatUtil.sendMessage(new LiteralText("§e[Schem2DF] Loading the file §e" + finalFile.getName() + "§e..."));
-
-                                            Schematic schematic = reader.read();
-                                            reader.close();
-
-                                            String[] templateDatas = DFUtils.GenerateSchematicFunction(schematic, FilenameUtils.removeExtension(finalFile.getName()));
-                                            System.out.println(schematic.name);
-                                            for (int i = 0; i < templateDatas.length; i++) {
-                                                ItemStack stack = new ItemStack(Items.NETHER_QUARTZ_ORE);
-                                                TemplateUtils.compressTemplateNBT(stack, "Schem2DF Data", "LessUtilities", templateDatas[i]);
-                                                // setHoverName?
-                                                stack.setCustomName(new LiteralText("§b§lFunction §3» " + (schematic.name.equals("Unnamed") ? schematic.name : FilenameUtils.removeExtension(finalFile.getName())) + " #" + (i + 1)));
-                                                ItemUtil.giveCreativeItem(stack, false);
-                                                Thread.sleep(2);
-                                            }
-
-                                            ChatUtil.sendMessage(new LiteralText("§a[Schem2DF] The file has successfully been loaded!"));
-                                            ChatUtil.sendMessage(new LiteralText("§b[Schem2DF] Connect all Code Templates together, and use it with §dSchem2DF Builder§b."));
-                                            ChatUtil.sendMessage(new LiteralText("§b[Schem2DF] Schem2DF Builder can be obtained with §d/schem builder§b."));
-                                            ToasterUtil.sendToaster("Structure File Loaded!", finalFile.getName(), SystemToast.Type.NARRATOR_TOGGLE);
-                                        } catch (Exception e) {
-                                            ChatUtil.sendMessage(new LiteralText("§cAn error occurred while executing this command."));
-                                            e.printStackTrace();
-                                        }
-                                    }).start();
+                                    loadSchematic(target, format);
                                 } else {
                                     ChatUtil.sendMessage(new LiteralText("§cThe file §6" + arg + "§c was not found."));
                                 }
                             }
                             return 1;
                         })))
+                .then(literal("loadall")
+                        .executes(ctx -> {
+                            if (mc.player.isCreative()) {
+                                File[] files = new File("schematics").listFiles((folder, name) -> !getFormat(name).isEmpty());
+                                if (files == null || files.length == 0) {
+                                    ChatUtil.sendMessage(new LiteralText("§c[Schem2DF] There are no structure files in the schematics folder."));
+                                    return 1;
+                                }
+                                Arrays.sort(files);
+
+                                List<Runnable> loads = new ArrayList<>();
+                                for (File file : files) {
+                                    loads.add(() -> loadSchematic(file, getFormat(file.getName())));
+                                }
+                                ChatUtil.sendMessage(new LiteralText("§e[Schem2DF] Loading " + files.length + " files..."));
+                                JobManager.submitAll(JOB_GROUP, loads);
+                            }
+                            return 1;
+                        }))
+                .then(literal("cancel")
+                        .executes(ctx -> {
+                            int cancelled = JobManager.cancel(JOB_GROUP);
+                            if (cancelled == 0) {
+                                ChatUtil.sendMessage(new LiteralText("§c[Schem2DF] No files are loading."));
+                            }
+                            return 1;
+                        }))
                 .then(literal("builder")
                         .executes(ctx -> {
                             if (mc.player.isCreative()) {
@@ -182,4 +162,76 @@ public class SchemCommand implements Command {
         return literal;
     }
 
+    public static void loadSchematic(File file, String format) {
+        if (!format.equals("schematic") && !format.equals("schem") && !format.equals("litematic")) {
+            ChatUtil.sendMessage(new LiteralText("§c[Schem2DF] The file has to be a litematic, schematic, schem or vanilla nbt format."));
+            return;
+        }
+        String fallbackName = FilenameUtils.removeExtension(file.getName());
+
+        ChatUtil.sendMessage(new LiteralText("§e[Schem2DF] Loading the file §e" + file.getName() + "§e..."));
+        JobManager.submit(JOB_GROUP, file.getName(), job -> {
+            job.setStatus("Checking cache");
+            String key = CACHE.key(file.toPath(), DFUtils.TEMPLATE_VERSION);
+            TemplateCache.Entry cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            job.checkCancelled();
+
+            job.setStatus("Reading");
+            Schematic schematic;
+            try (MSchematicReader reader = openReader(file, format)) {
+                schematic = reader.read();
+            }
+            job.checkCancelled();
+
+            job.setStatus("Generating templates");
+            List<String> templateDatas = new ArrayList<>();
+            DFUtils.GenerateSchematicFunction(schematic, fallbackName, templateData -> {
+                job.checkCancelled();
+                templateDatas.add(templateData);
+                job.setProgress(templateDatas.size(), 0);
+            });
+            TemplateCache.Entry entry = new TemplateCache.Entry(schematic.name.equals("Unnamed") ? schematic.name : fallbackName,
+                    schematic.author, templateDatas);
+            CACHE.put(key, entry);
+            return entry;
+        }, loaded -> {
+            for (int i = 0; i < loaded.templates().size(); i++) {
+                ItemStack stack = new ItemStack(Items.NETHER_QUARTZ_ORE);
+                TemplateUtils.applyRawTemplateNBT(stack, "Schem2DF Data", "LessUtilities", loaded.templates().get(i));
+                stack.setCustomName(new LiteralText("§b§lFunction §3» " + loaded.name() + " #" + (i + 1)));
+                ItemDelivery.give(stack);
+            }
+
+            ChatUtil.sendMessage(new LiteralText("§a[Schem2DF] The file has successfully been loaded!"));
+            ChatUtil.sendMessage(new LiteralText("§b[Schem2DF] Connect all Code Templates together, and use it with §dSchem2DF Builder§b."));
+            ChatUtil.sendMessage(new LiteralText("§b[Schem2DF] Schem2DF Builder can be obtained with §d/schem builder§b."));
+            ToasterUtil.sendToaster("Structure File Loaded!", file.getName(), SystemToast.Type.NARRATOR_TOGGLE);
+        }, e -> ChatUtil.sendMessage(new LiteralText("§cAn error occurred while loading §6" + file.getName() + "§c.")));
+    }
+
+    private static MSchematicReader openReader(File file, String format) throws IOException {
+        NBTInputStream nbtStream = new NBTInputStream(new GZIPInputStream(new FileInputStream(file)));
+        return switch (format) {
+            case "schematic" -> new MCEditSchematicLoader(nbtStream);
+            case "schem" -> new MSpongeSchematicReader(nbtStream);
+            default -> new LitematicaLoader(nbtStream);
+        };
+    }
+
+    private static String getFormat(String fileName) {
+        if (fileName.endsWith(".litematic")) {
+            return "litematic";
+        }
+        if (fileName.endsWith(".schematic")) {
+            return "schematic";
+        }
+        if (fileName.endsWith(".schem")) {
+            return "schem";
+        }
+        return "";
+    }
+
 }
@@ -8,9 +8,14 @@ import io.github.codeutilities.commands.arguments.StringFuncArgumentType;
 import io.github.codeutilities.screen.script.ScriptListScreen;
 import io.github.codeutilities.script.Script;
 import io.github.codeutilities.script.ScriptManager;
+import io.github.codeutilities.script.action.ScriptActionType;
+import io.github.codeutilities.script.event.ScriptEventType;
+import io.github.codeutilities.script.execution.ScriptProfile;
 import io.github.codeutilities.script.values.ScriptValue;
+import io.github.codeutilities.util.Scheduler;
 import io.github.codeutilities.util.chat.ChatUtil;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
 import net.fabricmc.fabric.api.client.command.v1.FabricClientCommandSource;
@@ -32,15 +37,42 @@ public class ScriptsCommand implements Command {
                         return 0;
                     })
                 )
-                .then(literal("vars")
-                    .then(argument("script", new StringFuncArgumentType((v) -> {
-                            List<String> possible = new ArrayList<>();
+                .then(literal("events")
+                    .executes(ctx -> {
+                        ScriptManager manager = ScriptManager.getInstance();
+                        for (ScriptEventType type : ScriptEventType.values()) {
+                            ChatUtil.info(type.getName() + ": " + manager.getEntryPointCount(type) + " entry points, triggered " + manager.getTriggerCount(type) + " times.");
+                        }
+                        return 0;
+                    })
+                )
+                .then(literal("profile")
+                    .executes(ctx -> {
+                        for (Script s : ScriptManager.getInstance().getScripts()) {
+                            ScriptProfile p = s.getProfile();
+                            ChatUtil.info(s.getName() + ": " + p.getInvocations() + " invocations, " + ScriptProfile.format(p.getTotalNanos()) + " total, " + ScriptProfile.format(p.getMaxNanos()) + " max, " + p.getSuspensions() + " suspensions, " + p.getDropped() + " dropped events.");
+                        }
+                        ChatUtil.info(Scheduler.getPendingCount() + " scheduled tasks are pending.");
+                        return 0;
+                    })
+                    .then(literal("reset")
+                        .executes(ctx -> {
                             for (Script s : ScriptManager.getInstance().getScripts()) {
-                                possible.add(s.getName().replaceAll(" ", "_"));
+                                s.getProfile().reset();
                             }
-                            return possible;
-                            }, false)
-                        )
+                            ChatUtil.info("Script profiles reset!");
+                            return 0;
+                        })
+                    )
+                    .then(argument("script", new StringFuncArgumentType((v) -> scriptNames(), false))
+                        .executes(ctx -> {
+                            showProfile(ctx.getArgument("script", String.class));
+                            return 0;
+                        })
+                    )
+                )
+                .then(literal("vars")
+                    .then(argument("script", new StringFuncArgumentType((v) -> scriptNames(), false))
                         .executes(ctx -> {
                             listVars(ctx.getArgument("script", String.class), "");
                             return 0;
@@ -56,6 +88,39 @@ public class ScriptsCommand implements Command {
         );
     }
 
+    private List<String> scriptNames() {
+        List<String> possible = new ArrayList<>();
+        for (Script s : ScriptManager.getInstance().getScripts()) {
+            possible.add(s.getName().replaceAll(" ", "_"));
+        }
+        return possible;
+    }
+
+    private void showProfile(String script) {
+        for (Script s : ScriptManager.getInstance().getScripts()) {
+            if (s.getName().replaceAll(" ", "_").equals(script)) {
+                ScriptProfile p = s.getProfile();
+                ChatUtil.info("Script " + s.getName() + " was invoked " + p.getInvocations() + " times and ran " + p.getRuns() + " times.");
+                ChatUtil.info("Total: " + ScriptProfile.format(p.getTotalNanos()) + ", max: " + ScriptProfile.format(p.getMaxNanos()) + ", suspended " + p.getSuspensions() + " times.");
+                if (p.getAborts() > 0 || p.getDropped() > 0) {
+                    ChatUtil.info("Over budget: " + p.getAborts() + " event handlers stopped, " + p.getDropped() + " events dropped.");
+                }
+
+                ScriptActionType[] types = Arrays.stream(ScriptActionType.values())
+                    .filter(type -> p.getActionCount(type) > 0)
+                    .sorted((a, b) -> Long.compare(p.getActionNanos(b), p.getActionNanos(a)))
+                    .limit(10)
+                    .toArray(ScriptActionType[]::new);
+
+                for (ScriptActionType type : types) {
+                    ChatUtil.info(type.getName() + ": " + p.getActionCount(type) + "x, " + ScriptProfile.format(p.getActionNanos(type)) + " total, " + ScriptProfile.format(p.getActionMaxNanos(type)) + " max");
+                }
+                return;
+            }
+        }
+        ChatUtil.error("Unknown script!");
+    }
+
     private void listVars(String script, String filter) {
         for (Script s : ScriptManager.getInstance().getScripts()) {
             if (s.getName().replaceAll(" ", "_").equals(script)) {
@@ -66,6 +131,7 @@ public class ScriptsCommand implements Command {
                 int total = s.getContext().getVariableCount();
 
                 ChatUtil.info("Script " + s.getName() + " has a total of " + total + " variables.");
+                ChatUtil.info("It uses " + s.getContext().getSlotCount() + " variable names.");
 
                 if (filter.isEmpty()) {
                     ChatUtil.info("Showing " + showing + " variables.");
@@ -5,12 +5,15 @@ import io.github.codeutilities.config.structure.ConfigSetting;
 import io.github.codeutilities.config.types.list.ListSetting;
 import net.minecraft.sound.SoundEvent;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class Config {
     private static final ConfigManager CONFIG = ConfigManager.getInstance();
+    private static final Map<ConfigSetting<?>, String[]> TEMPLATES = new HashMap<>();
 
     public static String getString(String key) {
         ConfigSetting<?> setting = CONFIG.find(key);
@@ -19,14 +22,43 @@ public class Config {
 
     public static String getDynamicString(String key, HashMap<String, String> vars) {
         ConfigSetting<?> setting = CONFIG.find(key);
-        String value = getValue(setting, String.class);
+        String[] template = TEMPLATES.get(setting);
+        if (template == null) {
+            if (!TEMPLATES.containsKey(setting)) {
+                setting.addListener(value -> TEMPLATES.put(setting, null));
+            }
+            template = parseTemplate(getValue(setting, String.class));
+            TEMPLATES.put(setting, template);
+        }
 
-        for (String var : vars.keySet()) {
-            String val = vars.get(var);
-            value = value.replaceAll("\\$\\{" + var.replaceAll("\\.", "\\.") + "}", val);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < template.length; i++) {
+            if (i % 2 == 0) {
+                builder.append(template[i]);
+            } else {
+                String val = vars.get(template[i]);
+                builder.append(val == null ? "${" + template[i] + "}" : val);
+            }
         }
+        return builder.toString();
+    }
 
-        return value;
+    // Literal text at even indices, variable names at odd ones
+    private static String[] parseTemplate(String value) {
+        List<String> parts = new ArrayList<>();
+        int pos = 0;
+        int start;
+        while ((start = value.indexOf("${", pos)) != -1) {
+            int end = value.indexOf('}', start + 2);
+            if (end == -1) {
+                break;
+            }
+            parts.add(value.substring(pos, start));
+            parts.add(value.substring(start + 2, end));
+            pos = end + 1;
+        }
+        parts.add(value.substring(pos));
+        return parts.toArray(new String[0]);
     }
 
     public static <T extends Enum<T>> T getEnum(String key, Class<T> enumType) {
@@ -74,6 +106,11 @@ public class Config {
         return ConfigSounds.getByName(list.getSelected());
     }
 
+    public static SoundEvent getSound(ConfigKey<?> key) {
+        ListSetting<String> list = key.getSetting().cast();
+        return ConfigSounds.getByName(list.getSelected());
+    }
+
     @SuppressWarnings("unchecked")
     public static List<String> getStringList(String key) {
         ConfigSetting<?> setting = CONFIG.find(key);
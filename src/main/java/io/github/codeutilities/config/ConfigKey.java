@@ -0,0 +1,98 @@
+package io.github.codeutilities.config;
+
+import io.github.codeutilities.config.structure.ConfigManager;
+import io.github.codeutilities.config.structure.ConfigSetting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Typed handle to a setting, meant to be kept in a static field.
+ * The setting is looked up on first use, after that reading it is a field access.
+ * The config screen and the config file update that same setting, so the handle always sees the current value.
+ */
+public class ConfigKey<T> {
+    private final String key;
+    private final Class<T> type;
+    private ConfigSetting<?> setting;
+    // Not registered even though all settings are, so it never will be
+    private boolean missing = false;
+    private List<Consumer<T>> pendingListeners = null;
+
+    private ConfigKey(String key, Class<T> type) {
+        this.key = key;
+        this.type = type;
+    }
+
+    public static <T> ConfigKey<T> of(String key, Class<T> type) {
+        return new ConfigKey<>(key, type);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public ConfigSetting<?> getSetting() {
+        return Objects.requireNonNull(findSetting(), "Could not find the setting " + key);
+    }
+
+    private ConfigSetting<?> findSetting() {
+        ConfigSetting<?> setting = this.setting;
+        if (setting == null && !missing) {
+            ConfigManager manager = ConfigManager.getInstance();
+            setting = manager == null ? null : manager.find(key);
+            if (setting == null) {
+                missing = manager != null && manager.isLoaded();
+                return null;
+            }
+            this.setting = setting;
+            if (pendingListeners != null) {
+                pendingListeners.forEach(this::attach);
+                pendingListeners = null;
+            }
+        }
+        return setting;
+    }
+
+    /**
+     * Registers a listener for changes of this setting. Handles are usually created before the settings are
+     * registered, so the listener is only attached once the setting is first used.
+     * Cache whatever is derived from the value lazily and drop it in the listener.
+     */
+    public ConfigKey<T> onChange(Consumer<T> listener) {
+        if (setting == null) {
+            if (pendingListeners == null) {
+                pendingListeners = new ArrayList<>();
+            }
+            pendingListeners.add(listener);
+        } else {
+            attach(listener);
+        }
+        return this;
+    }
+
+    private void attach(Consumer<T> listener) {
+        setting.addListener(value -> listener.accept(type.isInstance(value) ? type.cast(value) : null));
+    }
+
+    public T get() {
+        Object value = getSetting().getValue();
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    /**
+     * For settings that are not always registered, like the ones only some players have.
+     *
+     * @return the value, or {@code fallback} if the setting is not registered (yet)
+     */
+    public T getOrDefault(T fallback) {
+        ConfigSetting<?> setting = findSetting();
+        if (setting == null) {
+            return fallback;
+        }
+        Object value = setting.getValue();
+        return type.isInstance(value) ? type.cast(value) : fallback;
+    }
+}
@@ -2,7 +2,9 @@ package io.github.codeutilities.config.impl;
 
 import io.github.codeutilities.CodeUtilities;
 import io.github.codeutilities.config.structure.ConfigGroup;
+import io.github.codeutilities.config.structure.ConfigSubGroup;
 import io.github.codeutilities.config.types.BooleanSetting;
+import io.github.codeutilities.config.types.IntegerSetting;
 
 public class MiscGroup extends ConfigGroup {
     public MiscGroup(String name) {
@@ -16,6 +18,13 @@ public class MiscGroup extends ConfigGroup {
 
         this.register(new BooleanSetting("clickToReply", false));
 
+        // Scripts
+        ConfigSubGroup scripts = new ConfigSubGroup("scripts");
+        scripts.register(new IntegerSetting("scriptInstructionBudget", 0));
+        scripts.register(new IntegerSetting("scriptTimeBudget", 0));
+        scripts.register(new IntegerSetting("scriptMaxPendingIO", 4));
+        this.register(scripts);
+
         if (CodeUtilities.PLAYER_NAME.equals("TechStreet") ||
                 CodeUtilities.PLAYER_NAME.equals("BlazeMCworld") ||
                 CodeUtilities.PLAYER_NAME.equals("Reasonless") ||
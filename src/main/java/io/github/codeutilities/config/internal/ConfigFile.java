@@ -1,60 +1,182 @@
 package io.github.codeutilities.config.internal;
 
-import com.google.gson.JsonObject;
+import com.google.gson.JsonElement;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.github.codeutilities.CodeUtilities;
+import io.github.codeutilities.config.internal.gson.ConfigSerializer;
 import io.github.codeutilities.config.structure.ConfigGroup;
 import io.github.codeutilities.config.structure.ConfigManager;
 import io.github.codeutilities.config.structure.ConfigSetting;
 import io.github.codeutilities.config.structure.ConfigSubGroup;
 import io.github.codeutilities.loader.v2.ILoader;
 import io.github.codeutilities.loader.v2.ISave;
+import io.github.codeutilities.util.Scheduler;
+import io.github.codeutilities.util.Scheduler.ScheduledTask;
 import net.fabricmc.loader.api.FabricLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Reads the settings on startup and writes them back a short while after they change.
+ * The file is written to a temporary file first and then moved over the old one, so it is never left half written.
+ */
 public class ConfigFile implements ILoader, ISave {
     private static final FabricLoader FABRIC_LOADER = FabricLoader.getInstance();
+    private static final Logger LOGGER = LogManager.getLogger("ConfigFile");
+    // Changes made in quick succession, like dragging a slider, are saved together
+    private static final int SAVE_DELAY_TICKS = 40;
+    private static final int WRITER_SHUTDOWN_SECONDS = 5;
     private static ConfigFile instance;
 
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Config-Writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Object writeLock = new Object();
+
     private Path configPath;
     private ConfigInstruction configInstruction;
+    private volatile boolean dirty = false;
+    private ScheduledTask pendingSave = null;
+    private long generation = 0;
+    private long writtenGeneration = 0;
+    private String lastWritten = null;
 
     public ConfigFile() {
         instance = this;
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Override
     public void load() {
         this.configPath = FABRIC_LOADER.getConfigDir().resolve("codeutilities.json");
-        File file = configPath.toFile();
-        JsonObject jsonObject = null;
 
-        if (!file.exists()) {
-            try {
-                jsonObject = new JsonObject();
-                file.createNewFile();
-            } catch (IOException e) {
-                e.printStackTrace();
+        if (!Files.exists(configPath)) {
+            // Write the defaults on the first save
+            this.configInstruction = new ConfigInstruction();
+            this.dirty = true;
+            return;
+        }
+        try {
+            this.configInstruction = read(configPath);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Could not read the config, using the defaults", e);
+            this.configInstruction = new ConfigInstruction();
+            this.dirty = true;
+        }
+    }
+
+    // Settings are read one at a time, the file as a whole is never held in memory
+    private static ConfigInstruction read(Path path) throws IOException {
+        ConfigInstruction instruction = new ConfigInstruction();
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return instruction;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                JsonElement element = CodeUtilities.JSON_PARSER.parse(reader);
+                ConfigSetting<?> setting = ConfigSerializer.deserializeSetting(element);
+                if (setting != null) {
+                    instruction.put(key, setting);
+                }
             }
+        } catch (EOFException empty) {
+            // An empty file has no settings
         }
-        if (jsonObject == null) {
-            try {
-                JsonReader reader = new JsonReader(new FileReader(file));
-                jsonObject = CodeUtilities.JSON_PARSER.parse(reader).getAsJsonObject();
-            } catch (FileNotFoundException | RuntimeException e) {
-                e.printStackTrace();
+        return instruction;
+    }
+
+    /**
+     * Schedules a save whenever one of the registered settings changes.
+     * Called once the values from the file have been applied.
+     */
+    public void watch(ConfigManager manager) {
+        for (ConfigGroup group : manager.getRegistered()) {
+            for (ConfigSetting<?> setting : group.getSettings()) {
+                setting.addListener(value -> markDirty());
+            }
+            for (ConfigSubGroup configSubGroup : group.getRegistered()) {
+                for (ConfigSetting<?> configSetting : configSubGroup.getRegistered()) {
+                    configSetting.addListener(value -> markDirty());
+                }
             }
         }
-        // Deserialize all the values from the config
-        this.configInstruction = CodeUtilities.GSON.fromJson(jsonObject, ConfigInstruction.class);
     }
 
+    public void markDirty() {
+        dirty = true;
+        if (pendingSave != null) {
+            pendingSave.cancel();
+        }
+        pendingSave = Scheduler.schedule(SAVE_DELAY_TICKS, () -> {
+            pendingSave = null;
+            saveInBackground();
+        });
+    }
+
+    private void saveInBackground() {
+        if (!dirty) {
+            return;
+        }
+        // The values are read here on the client thread, only the writing happens in the background
+        String json = serialize();
+        long generation = ++this.generation;
+        dirty = false;
+        try {
+            writer.execute(() -> write(json, generation));
+        } catch (RejectedExecutionException e) {
+            // Closing already, write it here instead
+            write(json, generation);
+        }
+    }
+
+    /**
+     * Writes the settings right away if anything changed since the last save. Called when the game closes,
+     * after waiting for a save already handed to the writer thread, which would be killed with the game.
+     */
     @Override
     public void save() {
+        if (pendingSave != null) {
+            pendingSave.cancel();
+            pendingSave = null;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(WRITER_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("The config writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Set again if the last background write failed
+        if (!dirty) {
+            return;
+        }
+        String json = serialize();
+        long generation = ++this.generation;
+        dirty = false;
+        write(json, generation);
+    }
+
+    private String serialize() {
         ConfigInstruction instruction = new ConfigInstruction();
 
         // Getting all the settings
@@ -70,13 +192,38 @@ public class ConfigFile implements ILoader, ISave {
                 }
             }
         }
+        return CodeUtilities.GSON.toJson(instruction);
+    }
 
-        try {
-            FileWriter configWriter = new FileWriter(this.configPath.toFile());
-            configWriter.write(CodeUtilities.GSON.toJson(instruction));
-            configWriter.flush();
-        } catch (IOException e) {
-            e.printStackTrace();
+    private void write(String json, long generation) {
+        synchronized (writeLock) {
+            // A newer save already went through, or nothing actually changed
+            if (generation <= writtenGeneration || json.equals(lastWritten)) {
+                return;
+            }
+            Path temp = configPath.resolveSibling(configPath.getFileName() + ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+                try {
+                    Files.move(temp, configPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, configPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+                writtenGeneration = generation;
+                lastWritten = json;
+            } catch (IOException e) {
+                LOGGER.error("Could not save the config", e);
+                // Try again a little later, the scheduler only runs on the client thread
+                dirty = true;
+                CodeUtilities.MC.execute(this::markDirty);
+            }
         }
     }
 
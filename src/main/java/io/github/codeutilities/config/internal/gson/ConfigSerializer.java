@@ -21,31 +21,7 @@ public class ConfigSerializer implements JsonSerializer<ConfigInstruction>, Json
             Set<String> keys = getSafeKeys(json);
 
             for (String key : keys) {
-                JsonElement jsonElement = json.get(key);
-                ConfigSetting<?> setting = null;
-
-                // Deserialize the setting
-                if (jsonElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = jsonElement.getAsJsonPrimitive();
-
-                    if (primitive.isString()) {
-                        setting = CodeUtilities.GSON.fromJson(primitive, StringSetting.class);
-                    } else if (primitive.isBoolean()) {
-                        setting = CodeUtilities.GSON.fromJson(primitive, BooleanSetting.class);
-                    } else if (primitive.isNumber()) {
-                        Number number = primitive.getAsNumber();
-                        if (number instanceof Integer) {
-                            setting = CodeUtilities.GSON.fromJson(primitive, IntegerSetting.class);
-                        } else if (number instanceof Double) {
-                            setting = CodeUtilities.GSON.fromJson(primitive, DoubleSetting.class);
-                        } else if (number instanceof Float) {
-                            setting = CodeUtilities.GSON.fromJson(primitive, FloatSetting.class);
-                        } else if (number instanceof Long) {
-                            setting = CodeUtilities.GSON.fromJson(primitive, LongSetting.class);
-                        }
-                    }
-                }
-
+                ConfigSetting<?> setting = deserializeSetting(json.get(key));
                 if (setting != null) configInstruction.put(key, setting);
             }
 
@@ -60,12 +36,41 @@ public class ConfigSerializer implements JsonSerializer<ConfigInstruction>, Json
             String key = entry.getKey();
             ConfigSetting<?> value = entry.getValue();
             if (value instanceof TextDescription) continue;
-            System.out.println("[CuConfig] saving " + key + " (" + value + ")");
             json.add(key, CodeUtilities.GSON.toJsonTree(value));
         }
         return json;
     }
 
+    /**
+     * @return a setting holding the value, or null if the value is not supported
+     */
+    public static ConfigSetting<?> deserializeSetting(JsonElement jsonElement) {
+        ConfigSetting<?> setting = null;
+
+        // Deserialize the setting
+        if (jsonElement.isJsonPrimitive()) {
+            JsonPrimitive primitive = jsonElement.getAsJsonPrimitive();
+
+            if (primitive.isString()) {
+                setting = CodeUtilities.GSON.fromJson(primitive, StringSetting.class);
+            } else if (primitive.isBoolean()) {
+                setting = CodeUtilities.GSON.fromJson(primitive, BooleanSetting.class);
+            } else if (primitive.isNumber()) {
+                Number number = primitive.getAsNumber();
+                if (number instanceof Integer) {
+                    setting = CodeUtilities.GSON.fromJson(primitive, IntegerSetting.class);
+                } else if (number instanceof Double) {
+                    setting = CodeUtilities.GSON.fromJson(primitive, DoubleSetting.class);
+                } else if (number instanceof Float) {
+                    setting = CodeUtilities.GSON.fromJson(primitive, FloatSetting.class);
+                } else if (number instanceof Long) {
+                    setting = CodeUtilities.GSON.fromJson(primitive, LongSetting.class);
+                }
+            }
+        }
+        return setting;
+    }
+
     static Set<String> getSafeKeys(JsonObject object) {
         return object.entrySet()
                 .stream()
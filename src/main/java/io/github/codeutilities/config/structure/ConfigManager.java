@@ -11,12 +11,18 @@ import io.github.codeutilities.loader.v2.IManager;
 import io.github.codeutilities.util.hypercube.rank.HypercubeRank;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 public class ConfigManager implements IManager<ConfigGroup> {
     private final List<ConfigGroup> groups = new ArrayList<>();
+    // Settings by custom key and by key name, as registered and lower-cased
+    private final Map<String, ConfigSetting<?>> byKey = new HashMap<>();
+    private final Map<String, ConfigSetting<?>> byKeyName = new HashMap<>();
     private static ConfigManager instance;
+    private boolean loaded = false;
 
     public ConfigManager() {
         instance = this;
@@ -48,11 +54,21 @@ public class ConfigManager implements IManager<ConfigGroup> {
 
         // Ignore this
         this.getRegistered().forEach(IManager::initialize);
+        this.buildIndex();
 
         // Getting deserialized instructions from the file
         ConfigFile configFile = ConfigFile.getInstance();
         ConfigInstruction instruction = configFile.getConfigInstruction();
         this.readInstruction(instruction);
+        configFile.watch(this);
+        loaded = true;
+    }
+
+    /**
+     * @return whether all settings are registered and have their values from the file
+     */
+    public boolean isLoaded() {
+        return loaded;
     }
 
     private void readInstruction(ConfigInstruction configInstruction) {
@@ -153,30 +169,50 @@ public class ConfigManager implements IManager<ConfigGroup> {
     }
 
     public ConfigSetting<?> find(String key, boolean customKeyNames) {
+        if (byKey.isEmpty()) {
+            buildIndex();
+        }
+        if (customKeyNames) {
+            ConfigSetting<?> setting = lookup(byKeyName, key);
+            if (setting != null) {
+                return setting;
+            }
+        }
+        return lookup(byKey, key);
+    }
+
+    private static ConfigSetting<?> lookup(Map<String, ConfigSetting<?>> index, String key) {
+        // Callers almost always use the registered casing, so only lower-case on a miss
+        ConfigSetting<?> setting = index.get(key);
+        if (setting == null) {
+            setting = index.get(key.toLowerCase(Locale.ROOT));
+        }
+        return setting;
+    }
+
+    private void buildIndex() {
+        byKey.clear();
+        byKeyName.clear();
         for (ConfigGroup group : groups) {
             for (ConfigSetting<?> setting : group.getSettings()) {
-                String customKey = setting.getCustomKey();
-                if (customKeyNames && setting.getKeyName().orElse(customKey).equalsIgnoreCase(key)) {
-                    return setting;
-                }
-                if (customKey.equalsIgnoreCase(key)) {
-                    return setting;
-                }
+                index(setting);
             }
             for (ConfigSubGroup configSubGroup : group.getRegistered()) {
                 for (ConfigSetting<?> configSetting : configSubGroup.getRegistered()) {
-                    String customKey = configSetting.getCustomKey();
-                    if (customKeyNames && configSetting.getKeyName().orElse(customKey).equalsIgnoreCase(key)) {
-                        return configSetting;
-                    }
-
-                    if (customKey.equalsIgnoreCase(key)) {
-                        return configSetting;
-                    }
+                    index(configSetting);
                 }
             }
         }
-        return null;
+    }
+
+    private void index(ConfigSetting<?> setting) {
+        String customKey = setting.getCustomKey();
+        String keyName = setting.getKeyName().orElse(customKey);
+        // First registration wins, like the old linear search
+        byKey.putIfAbsent(customKey, setting);
+        byKey.putIfAbsent(customKey.toLowerCase(Locale.ROOT), setting);
+        byKeyName.putIfAbsent(keyName, setting);
+        byKeyName.putIfAbsent(keyName.toLowerCase(Locale.ROOT), setting);
     }
 
     public static ConfigManager getInstance() {
@@ -4,8 +4,11 @@ import io.github.codeutilities.config.types.DropdownSetting;
 import net.minecraft.text.LiteralText;
 import net.minecraft.text.Text;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class ConfigSetting<Value> implements IRawTranslation<ConfigSetting<Value>> {
 
@@ -17,6 +20,7 @@ public class ConfigSetting<Value> implements IRawTranslation<ConfigSetting<Value
     private LiteralText rawTooltip = null;
     private String keyName = null;
     private String description = null;
+    private transient List<Consumer<Value>> listeners = null;
 
     public ConfigSetting() {
         this.key = "?";
@@ -132,10 +136,34 @@ public class ConfigSetting<Value> implements IRawTranslation<ConfigSetting<Value
     }
 
     public ConfigSetting<Value> setValue(Value value) {
+        boolean changed = !Objects.equals(this.value, value);
         this.value = value;
+        if (changed) {
+            changed();
+        }
         return this;
     }
 
+    /**
+     * Registers a listener that is called with the new value whenever it changes,
+     * be it from the config screen or when the config file is loaded.
+     */
+    public ConfigSetting<Value> addListener(Consumer<Value> listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+        }
+        listeners.add(listener);
+        return this;
+    }
+
+    protected void changed() {
+        if (listeners != null) {
+            for (Consumer<Value> listener : listeners) {
+                listener.accept(value);
+            }
+        }
+    }
+
     public Value getDefaultValue() {
         return defaultValue;
     }
@@ -6,6 +6,7 @@ import io.github.codeutilities.config.types.IConfigDropdownEnum;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 public class ListSetting<Type> extends ConfigSetting<List<Type>> {
     private Type selected;
@@ -23,14 +24,17 @@ public class ListSetting<Type> extends ConfigSetting<List<Type>> {
     }
 
     public ListSetting<Type> setSelected(Type selected) {
+        boolean changed = !Objects.equals(this.selected, selected);
         this.selected = selected;
+        if (changed) {
+            changed();
+        }
         return this;
     }
 
     @SuppressWarnings("unchecked")
     public <T extends IConfigDropdownEnum<T>> ListSetting<Type> setSelected(T selected) {
-        this.selected = (Type) selected.getName();
-        return this;
+        return setSelected((Type) selected.getName());
     }
 
     @Override
@@ -1,18 +1,31 @@
 package io.github.codeutilities.event;
 
 import io.github.codeutilities.event.system.CancellableEvent;
+import io.github.codeutilities.util.chat.text.MessageAnalysis;
 import net.minecraft.text.Text;
 
 public class ReceiveChatEvent implements CancellableEvent {
-    private final Text message;
+    private final MessageAnalysis analysis;
     private boolean cancelled = false;
 
     public ReceiveChatEvent(Text message) {
-        this.message = message;
+        this.analysis = MessageAnalysis.of(message);
+    }
+
+    public ReceiveChatEvent(MessageAnalysis analysis) {
+        this.analysis = analysis;
     }
 
     public Text getMessage() {
-        return message;
+        return analysis.getText();
+    }
+
+    public MessageAnalysis getAnalysis() {
+        return analysis;
+    }
+
+    public String getStripped() {
+        return analysis.getStripped();
     }
 
     @Override
@@ -1,19 +1,31 @@
 package io.github.codeutilities.event.system;
 
-import io.github.codeutilities.config.Config;
+import io.github.codeutilities.config.ConfigKey;
+import io.github.codeutilities.config.structure.ConfigManager;
 import io.github.codeutilities.event.TickEvent;
 import io.github.codeutilities.util.chat.ChatType;
 import io.github.codeutilities.util.chat.ChatUtil;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 public class EventManager {
 
+    private static final Listener[] NO_LISTENERS = new Listener[0];
+    private static final ConfigKey<Boolean> DEBUG = ConfigKey.of("debug", Boolean.class)
+        .onChange(value -> getInstance().debug = null);
+
     private static EventManager instance;
-    private final HashMap<Class<? extends Event>, List<Consumer<Event>>> listeners = new HashMap<>();
+    private final Map<Class<? extends Event>, List<Listener>> listeners = new LinkedHashMap<>();
+    // Listeners of each dispatched class including those registered for its supertypes, in call order
+    private final Map<Class<?>, Listener[]> resolved = new ConcurrentHashMap<>();
+    private int registrations = 0;
+    private volatile Boolean debug;
 
     public EventManager() {
         instance = this;
@@ -27,22 +39,74 @@ public class EventManager {
         return instance;
     }
 
-    @SuppressWarnings("unchecked")
     public <T extends Event> void register(Class<T> type, Consumer<T> consumer) {
+        register(type, EventPriority.NORMAL, false, consumer);
+    }
+
+    public <T extends Event> void register(Class<T> type, EventPriority priority, Consumer<T> consumer) {
+        register(type, priority, false, consumer);
+    }
+
+    /**
+     * @param ignoreCancelled if true, the listener is skipped once an earlier listener cancelled the event
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends Event> void register(Class<T> type, EventPriority priority, boolean ignoreCancelled, Consumer<T> consumer) {
         listeners
             .computeIfAbsent(type, k -> new ArrayList<>())
-            .add((Consumer<Event>) consumer);
+            .add(new Listener((Consumer<Event>) consumer, priority, ignoreCancelled, registrations++));
+        resolved.clear();
     }
 
     public void dispatch(Event event) {
-        if (Config.getBoolean("debug")) {
+        if (isDebug()) {
             if (!(event instanceof TickEvent)) {
                 ChatUtil.sendMessage(String.format("Event '%s' has been dispatched.", event.getClass()), ChatType.INFO_BLUE);
             }
         }
 
-        for (Consumer<Event> consumer : listeners.getOrDefault(event.getClass(), new ArrayList<>())) {
-            consumer.accept(event);
+        Listener[] listeners = resolved.get(event.getClass());
+        if (listeners == null) {
+            listeners = resolve(event.getClass());
         }
+
+        CancellableEvent cancellable = event instanceof CancellableEvent c ? c : null;
+        for (Listener listener : listeners) {
+            if (listener.ignoreCancelled && cancellable != null && cancellable.isCancelled()) {
+                continue;
+            }
+            listener.consumer.accept(event);
+        }
+    }
+
+    private synchronized Listener[] resolve(Class<?> type) {
+        List<Listener> matching = new ArrayList<>();
+        for (Map.Entry<Class<? extends Event>, List<Listener>> entry : listeners.entrySet()) {
+            if (entry.getKey().isAssignableFrom(type)) {
+                matching.addAll(entry.getValue());
+            }
+        }
+        matching.sort(Comparator.comparing((Listener l) -> l.priority).thenComparingInt(l -> l.order));
+
+        Listener[] array = matching.isEmpty() ? NO_LISTENERS : matching.toArray(new Listener[0]);
+        resolved.put(type, array);
+        return array;
+    }
+
+    private boolean isDebug() {
+        Boolean debug = this.debug;
+        if (debug == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            // Not cached until the settings are loaded, the debug setting is missing for most players
+            if (config == null || !config.isLoaded()) {
+                return false;
+            }
+            debug = Boolean.TRUE.equals(DEBUG.getOrDefault(false));
+            this.debug = debug;
+        }
+        return debug;
+    }
+
+    private record Listener(Consumer<Event> consumer, EventPriority priority, boolean ignoreCancelled, int order) {
     }
 }
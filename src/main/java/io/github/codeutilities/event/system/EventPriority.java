@@ -0,0 +1,13 @@
+package io.github.codeutilities.event.system;
+
+/**
+ * Order in which listeners of the same event are called, from {@link #LOWEST} to {@link #HIGHEST}.
+ * Listeners with a higher priority run later, so they get the final say on cancellation.
+ */
+public enum EventPriority {
+    LOWEST,
+    LOW,
+    NORMAL,
+    HIGH,
+    HIGHEST
+}
@@ -10,8 +10,6 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.loader.Loadable;
 import io.github.codeutilities.util.chat.ChatUtil;
 import io.github.codeutilities.util.chat.MessageGrabber;
-import io.github.codeutilities.util.chat.text.TextUtil;
-import net.minecraft.text.Text;
 
 public class AutomationFeature implements Loadable {
     private static String tipPlayer = "";
@@ -68,12 +66,10 @@ public class AutomationFeature implements Loadable {
         }));
 
         EventManager.getInstance().register(ReceiveChatEvent.class, (event -> {
-            Text text = event.getMessage();
-            String stripped = text.getString();
-
-            String msgWithColor = TextUtil.textComponentToColorCodes(text);
+            String stripped = event.getStripped();
 
             if (Config.getBoolean("autoTip") && stripped.startsWith("⏵⏵ ")) {
+                String msgWithColor = event.getAnalysis().getColorCodes();
                 if (msgWithColor.matches("§x§a§a§5§5§f§f⏵⏵ §f§l\\w+§7 is using a §x§f§f§f§f§a§a§l2§x§f§f§f§f§a§a§lx§7 booster.")) {
                     tipPlayer = stripped.split("§f§l")[1].split("§7")[0];
                 } else if (msgWithColor.matches("§x§a§a§5§5§f§f⏵⏵ §7Use §x§f§f§f§f§a§a\\/tip§7 to show your appreciation and receive a §x§f§f§d§4§2§a□ token notch§7!")) {
@@ -17,7 +17,7 @@ public class PrivateMessageManipulator implements Loadable {
     @Override
     public void load() {
         EventManager.getInstance().register(ReceiveChatEvent.class, (event -> {
-            String message = event.getMessage().getString();
+            String message = event.getStripped();
 
             if (Config.getBoolean("clickToReply")) {
                 try {
@@ -12,7 +12,7 @@ public class SupportMessages implements Loadable {
     @Override
     public void load() {
         EventManager.getInstance().register(ReceiveChatEvent.class, (event -> {
-            String message = event.getMessage().getString();
+            String message = event.getStripped();
 
             if (message.startsWith("[SUPPORT] ")) {
                 message = message.replace("[SUPPORT] ", "");
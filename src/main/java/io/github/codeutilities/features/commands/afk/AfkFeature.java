@@ -2,6 +2,7 @@ package io.github.codeutilities.features.commands.afk;
 
 import io.github.codeutilities.CodeUtilities;
 import io.github.codeutilities.config.Config;
+import io.github.codeutilities.config.ConfigKey;
 import io.github.codeutilities.event.KeyPressEvent;
 import io.github.codeutilities.event.ReceiveChatEvent;
 import io.github.codeutilities.event.TickEvent;
@@ -15,6 +16,9 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class AfkFeature implements Loadable {
+    private static final ConfigKey<Boolean> AUTO_AFK = ConfigKey.of("autoafk", Boolean.class);
+    private static final ConfigKey<Integer> AUTO_AFK_TIME = ConfigKey.of("autoafk_time", Integer.class);
+
     public static boolean afk = false;
     public static int afkTick = 0;
     public static ArrayList<HypercubePrivateMessage> afkMessages = new ArrayList<>();
@@ -23,7 +27,7 @@ public class AfkFeature implements Loadable {
     @Override
     public void load() {
         EventManager.getInstance().register(KeyPressEvent.class, (event -> {
-            if (Config.getBoolean("autoafk")) {
+            if (AUTO_AFK.get()) {
                 afkTick = 0;
 
                 if (afk) {
@@ -33,10 +37,10 @@ public class AfkFeature implements Loadable {
         }));
 
         EventManager.getInstance().register(TickEvent.class, (event -> {
-            if (Config.getBoolean("autoafk")) {
+            if (AUTO_AFK.get()) {
                 afkTick += 1;
 
-                if (afkTick >= Config.getInteger("autoafk_time")) {
+                if (afkTick >= AUTO_AFK_TIME.get()) {
                     if (!afk) {
                         CodeUtilities.MC.player.sendChatMessage("/afk");
                     }
@@ -45,7 +49,7 @@ public class AfkFeature implements Loadable {
         }));
 
         EventManager.getInstance().register(ReceiveChatEvent.class, (event -> {
-            String message = event.getMessage().getString();
+            String message = event.getStripped();
 
             //Afk Reply
             try {
@@ -0,0 +1,80 @@
+package io.github.codeutilities.features.commands.schem;
+
+import java.util.Arrays;
+
+/**
+ * Palette indexes of the blocks of a schematic, packed into a long array.
+ * Entries never span two longs, like Minecraft's PackedIntegerArray, and the amount of bits per entry
+ * grows with the largest index added. A 256x256x256 schematic with less than 256 palette entries takes 16 MB.
+ */
+public class BlockStore {
+
+    private static final int MIN_BITS = 4;
+
+    private long[] data;
+    private int bits;
+    private int perLong;
+    private long mask;
+    private int size = 0;
+
+    public BlockStore(int expectedSize) {
+        setBits(MIN_BITS);
+        this.data = new long[longsFor(Math.max(expectedSize, 16), perLong)];
+    }
+
+    public void add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative palette index " + value);
+        }
+        if (value > mask) {
+            widen(32 - Integer.numberOfLeadingZeros(value));
+        }
+        if (size == data.length * perLong) {
+            data = Arrays.copyOf(data, Math.max(data.length + (data.length >> 1), data.length + 1));
+        }
+        int index = size++;
+        int shift = (index % perLong) * bits;
+        data[index / perLong] |= ((long) value & mask) << shift;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index + " not in the range of 0 to " + (size - 1));
+        }
+        int shift = (index % perLong) * bits;
+        return (int) (data[index / perLong] >>> shift & mask);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    private void widen(int bits) {
+        long[] old = data;
+        int oldBits = this.bits;
+        int oldPerLong = perLong;
+        long oldMask = mask;
+
+        setBits(bits);
+        long[] data = new long[Math.max(longsFor(size, perLong), longsFor(old.length * oldPerLong, perLong))];
+        for (int i = 0; i < size; i++) {
+            long value = old[i / oldPerLong] >>> ((i % oldPerLong) * oldBits) & oldMask;
+            data[i / perLong] |= value << ((i % perLong) * bits);
+        }
+        this.data = data;
+    }
+
+    private void setBits(int bits) {
+        this.bits = bits;
+        this.perLong = 64 / bits;
+        this.mask = (1L << bits) - 1L;
+    }
+
+    private static int longsFor(int entries, int perLong) {
+        return (entries + perLong - 1) / perLong;
+    }
+}
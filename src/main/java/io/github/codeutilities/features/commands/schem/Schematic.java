@@ -1,6 +1,9 @@
 package io.github.codeutilities.features.commands.schem;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 import io.github.codeutilities.features.commands.schem.sk89q.worldedit.math.BlockVector3;
 import io.github.codeutilities.features.commands.schem.utils.DFText;
@@ -15,7 +18,8 @@ public class Schematic {
     }
 
     private final ArrayList<String> palette = new ArrayList<>();
-    private final ArrayList<Integer> blocks = new ArrayList<>();
+    private final Map<String, Integer> paletteIndex = new HashMap<>();
+    private BlockStore blocks = null;
     public String name = "Unnamed";
     public String author = "Unknown";
     public String description = "";
@@ -24,30 +28,42 @@ public class Schematic {
     public double lastModified = creationTime;
     private BlockVector3 dimensions = BlockVector3.ZERO;
     private BlockVector3 offset = BlockVector3.ZERO;
-    private int blocksTextsLen = 0;
 
     public void AddBlockToPalette(int id, String block) {
         if (block == null || block.equals("null")) return;
 
-        while (id > this.palette.size()) {
+        while (id >= this.palette.size()) {
             this.palette.add("");
         }
 
-        this.palette.add(id, block.replace("minecraft:", ""));
+        block = block.replace("minecraft:", "");
+        this.palette.set(id, block);
+        this.paletteIndex.putIfAbsent(block, id);
     }
 
     public int AddBlockToPalette(String block) {
         if (block == null || block.equals("null")) return -1;
 
-        if (this.palette.contains(block)) return this.palette.indexOf(block.replaceFirst("minecraft:", ""));
+        block = block.replace("minecraft:", "");
+        Integer id = this.paletteIndex.get(block);
+        if (id != null) return id;
 
-        this.palette.add(block.replace("minecraft:", ""));
+        this.palette.add(block);
+        this.paletteIndex.put(block, this.palette.size() - 1);
 
         return this.palette.size() - 1;
     }
 
     public void AddBlock(int block) {
-        if (block >= 0) this.blocks.add(block);
+        if (block >= 0) getBlocks().add(block);
+    }
+
+    /**
+     * The palette index of every block, in the order they were added. Sized for the dimensions set at the time of the first call.
+     */
+    public BlockStore getBlocks() {
+        if (blocks == null) blocks = new BlockStore(Math.max(getBlocksCount(), 0));
+        return blocks;
     }
 
     public BlockVector3 getDimensions() {
@@ -78,41 +94,56 @@ public class Schematic {
         return DFUtils.JoinString(20, ";", this.palette);
     }
 
-    public DFText[] getBlocksTexts() {
-        ArrayList<String> blocksClone = new ArrayList<>();
+    /**
+     * Walks the run-length encoding of the blocks in one pass over the block store.
+     */
+    public void forEachBlockRun(BlockRunConsumer consumer) throws IOException {
+        BlockStore blocks = getBlocks();
+        if (blocks.size() == 0) return;
 
-        int prevBlock = -1;
-        int prevBlockRepeated = 0;
-        for (Integer block : this.blocks) {
-            int currentBlock = block + 1;
+        String[] codes = new String[this.palette.size() + 1];
+        int prevBlock = blocks.get(0);
+        int prevBlockRepeated = 1;
+        for (int i = 1; i < blocks.size(); i++) {
+            int currentBlock = blocks.get(i);
 
             if (currentBlock == prevBlock) {
                 prevBlockRepeated++;
             } else {
-                int char1 = (int) Math.floor(prevBlock / 65);
-                int char2 = prevBlock % 65;
-                if (char2 == 0) char2 = 65;
+                consumer.accept(getBlockCode(codes, prevBlock + 1), prevBlockRepeated);
+                prevBlock = currentBlock;
+                prevBlockRepeated = 1;
+            }
+        }
+        consumer.accept(getBlockCode(codes, prevBlock + 1), prevBlockRepeated);
+    }
 
-                if (prevBlock != -1)
-                    if (prevBlockRepeated != 1)
-                        blocksClone.add(CompressList[char1] + CompressList[char2 - 1] + prevBlockRepeated);
-                    else blocksClone.add(CompressList[char1] + CompressList[char2 - 1]);
+    public int getBlockRunCount() {
+        BlockStore blocks = getBlocks();
+        if (blocks.size() == 0) return 0;
 
+        int runs = 1;
+        int prevBlock = blocks.get(0);
+        for (int i = 1; i < blocks.size(); i++) {
+            int currentBlock = blocks.get(i);
+            if (currentBlock != prevBlock) {
+                runs++;
                 prevBlock = currentBlock;
-                prevBlockRepeated = 1;
             }
         }
+        return runs;
+    }
 
-        int char1 = (int) Math.floor(prevBlock / 65);
-        int char2 = prevBlock % 65;
-        if (char2 == 0) char2 = 65;
+    private static String getBlockCode(String[] codes, int block) {
+        if (block < codes.length && codes[block] != null) return codes[block];
 
-        if (prevBlockRepeated != 1) blocksClone.add(CompressList[char1] + CompressList[char2 - 1] + prevBlockRepeated);
-        else blocksClone.add(CompressList[char1] + CompressList[char2 - 1]);
+        int char1 = block / 65;
+        int char2 = block % 65;
+        if (char2 == 0) char2 = 65;
 
-        DFText[] result = DFUtils.JoinString(500, "", blocksClone);
-        blocksTextsLen = result.length;
-        return result;
+        String code = CompressList[char1] + CompressList[char2 - 1];
+        if (block < codes.length) codes[block] = code;
+        return code;
     }
 
     public int getBlocksCount() {
@@ -120,8 +151,14 @@ public class Schematic {
     }
 
     public int getListAmount() {
-        if (blocksTextsLen == 0 && this.blocks.size() != 0) getBlocksTexts();
+        return DFUtils.GetBlockDataListAmount(getBlockRunCount());
+    }
 
-        return (int) Math.ceil((double) blocksTextsLen / 5000000d);
+    public interface BlockRunConsumer {
+        /**
+         * @param code     The compressed palette index of the block
+         * @param repeated How many times the block is repeated
+         */
+        void accept(String code, int repeated) throws IOException;
     }
 }
@@ -1,5 +1,7 @@
 package io.github.codeutilities.features.commands.schem.loaders;
 
+import java.util.Arrays;
+
 public class LitematicaBitArray {
     /**
      * The long array that is used to store the data for this BitArray.
@@ -78,6 +80,51 @@ public class LitematicaBitArray {
         }
     }
 
+    /**
+     * Reads all entries in order, a whole long at a time. Entries past the end of the backing array are read as 0.
+     *
+     * @param out Receives the entries, has to hold {@link #size()} of them
+     */
+    public void getAll(int[] out) {
+        getRange(0, out, 0, (int) this.arraySize);
+    }
+
+    /**
+     * Reads {@code count} entries in order starting at entry {@code start}, a whole long at a time.
+     * Entries past the end of the backing array are read as 0.
+     */
+    public void getRange(long start, int[] out, int offset, int count) {
+        int bits = this.bitsPerEntry;
+        long mask = this.maxEntryValue;
+        long available = Math.min(this.arraySize, (long) this.longArray.length * 64L / bits);
+        int readable = (int) Math.max(0L, Math.min(count, available - start));
+
+        long buffer = 0L; // bits not read yet, starting at the lowest bit
+        int buffered = 0;
+        long startBit = start * bits;
+        int longIndex = (int) (startBit >>> 6);
+        int skip = (int) (startBit & 0x3F);
+        if (readable > 0 && skip != 0) {
+            buffer = this.longArray[longIndex++] >>> skip;
+            buffered = 64 - skip;
+        }
+        for (int i = offset; i < offset + readable; i++) {
+            if (buffered >= bits) {
+                out[i] = (int) (buffer & mask);
+                buffer >>>= bits;
+                buffered -= bits;
+            } else {
+                // The entry starts in the bits left over and continues in the next long
+                long next = this.longArray[longIndex++];
+                int missing = bits - buffered;
+                out[i] = (int) ((buffer | next << buffered) & mask);
+                buffer = next >>> missing;
+                buffered = 64 - missing;
+            }
+        }
+        Arrays.fill(out, offset + readable, offset + count, 0);
+    }
+
     public int[] getValueCounts() {
         int[] counts = new int[(int) this.maxEntryValue + 1];
 
@@ -1,14 +1,23 @@
 package io.github.codeutilities.features.commands.schem.loaders;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
+import io.github.codeutilities.features.commands.schem.BlockStore;
 import io.github.codeutilities.features.commands.schem.Schematic;
 import io.github.codeutilities.features.commands.schem.sk89q.jnbt.*;
 
 public class LitematicaLoader extends MNBTSchematicReader {
 
+    // Blocks decoded at once, about 4 MB of ints
+    private static final int SLAB_BLOCKS = 1 << 20;
+
     private final NBTInputStream nbtInputStream;
 
     public LitematicaLoader(NBTInputStream nbtInputStream) {
@@ -16,20 +25,28 @@ public class LitematicaLoader extends MNBTSchematicReader {
         this.nbtInputStream = nbtInputStream;
     }
 
-    private static int log2(int N) {
-        return (int) (Math.log(N) / Math.log(2));
-    }
-
     @Override
     public Schematic read() throws IOException {
         Schematic schematic = new Schematic();
 
-        NamedTag namedTag = nbtInputStream.readNamedTag();
-        CompoundTag compoundTag = (CompoundTag) namedTag.getTag();
-
-        Map<String, Tag> schematicData = compoundTag.getValue();
+        CompoundTag metadata = null;
+        Map<String, Tag> regions = null;
+
+        beginRoot(nbtInputStream);
+        int type;
+        while ((type = nbtInputStream.nextTag()) != NBTConstants.TYPE_END) {
+            switch (nbtInputStream.getTagName()) {
+                case "Metadata" -> metadata = readTag(nbtInputStream, type, CompoundTag.class);
+                case "Regions" -> {
+                    requireType(nbtInputStream, type, CompoundTag.class);
+                    regions = readRegions();
+                }
+                default -> nbtInputStream.skipPayload(type);
+            }
+        }
 
-        CompoundTag metadata = requireTag(schematicData, "Metadata", CompoundTag.class);
+        requireFound(metadata, "Metadata", CompoundTag.class);
+        requireFound(regions, "Regions", CompoundTag.class);
         CompoundTag enclosingsize = requireTag(metadata.getValue(), "EnclosingSize", CompoundTag.class);
 
         int width = enclosingsize.getInt("x");
@@ -40,28 +57,87 @@ public class LitematicaLoader extends MNBTSchematicReader {
         schematic.setHeight(height);
         schematic.setLength(length);
 
-        String name = schematic.name = metadata.getString("Name");
+        schematic.name = metadata.getString("Name");
         schematic.description = metadata.getString("Description");
         schematic.author = metadata.getString("Author");
 
         schematic.creationTime = metadata.getLong("TimeCreated");
         schematic.lastModified = metadata.getLong("TimeModified");
 
-        int volume = metadata.getInt("TotalVolume");
-        //int totalBlocks = metadata.getInt("TotalBlocks");
+        // Anything not covered by a region is air, litematica always puts air first in a palette as well
+        int air = schematic.AddBlockToPalette("minecraft:air");
 
-        CompoundTag regions = requireTag(schematicData, "Regions", CompoundTag.class);
-        CompoundTag litematicdata = requireTag(regions.getValue(), name, CompoundTag.class);
-        //CompoundTag position = requireTag(litematicdata.getValue(), "Position", CompoundTag.class);
-        //int offsetx = position.getInt("x");
-        //int offsety = position.getInt("y");
-        //int offsetz = position.getInt("z");
+        // The palettes are added one region after another so the ids do not depend on the decoding order
+        List<Region> parsed = new ArrayList<>();
+        for (Map.Entry<String, Tag> entry : regions.entrySet()) {
+            Region region = parseRegion(schematic, entry.getKey(), (CompoundTag) entry.getValue());
+            if (region != null) parsed.add(region);
+        }
 
-        List<CompoundTag> palette = litematicdata.getList("BlockStatePalette", CompoundTag.class);
-        long[] longblockstates = litematicdata.getLongArray("BlockStates");
-        int nbits = (int) Math.max(Math.ceil(log2(palette.size())), 2) + 1;
-        LitematicaBitArray arr = new LitematicaBitArray(nbits, volume, longblockstates);
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        for (Region region : parsed) {
+            minX = Math.min(minX, region.x);
+            minY = Math.min(minY, region.y);
+            minZ = Math.min(minZ, region.z);
+        }
+        int originX = minX, originY = minY, originZ = minZ;
+
+        // Decoded a few layers at a time, so only a slab of the output is held as ints next to the packed store
+        int sizeX = Math.abs(width);
+        int sizeY = Math.abs(height);
+        int sizeZ = Math.abs(length);
+        int layerSize = sizeX * sizeZ;
+        int slabLayers = Math.max(1, Math.min(sizeY, SLAB_BLOCKS / Math.max(layerSize, 1)));
+        int[] slab = new int[slabLayers * layerSize];
+        BlockStore blocks = schematic.getBlocks();
+        for (int slabY = 0; slabY < sizeY; slabY += slabLayers) {
+            int firstY = slabY;
+            int layers = Math.min(slabLayers, sizeY - slabY);
+            try {
+                // Every row of x is filled by one task, later regions are placed over earlier ones
+                IntStream.range(0, layers * sizeZ).parallel().forEach(row -> {
+                    int y = firstY + row / sizeZ;
+                    int z = row % sizeZ;
+                    int rowStart = row * sizeX;
+                    Arrays.fill(slab, rowStart, rowStart + sizeX, air);
+                    for (Region region : parsed) {
+                        region.decodeRow(y - (region.y - originY), z - (region.z - originZ), region.x - originX,
+                                slab, rowStart, sizeX, air);
+                    }
+                });
+            } catch (RuntimeException e) {
+                throw new IOException("Could not decode the regions", e);
+            }
+            for (int i = 0, n = layers * layerSize; i < n; i++) {
+                blocks.add(slab[i]);
+            }
+        }
+
+        return schematic;
+    }
 
+    private static Region parseRegion(Schematic schematic, String name, CompoundTag region) throws IOException {
+        CompoundTag position = getTag(region.getValue(), "Position", CompoundTag.class);
+        CompoundTag size = requireTag(region.getValue(), "Size", CompoundTag.class);
+        int sx = size.getInt("x");
+        int sy = size.getInt("y");
+        int sz = size.getInt("z");
+        if (sx == 0 || sy == 0 || sz == 0) return null;
+
+        // The blocks are stored from the lowest corner, which is before the position when the size is negative
+        int x = position == null ? 0 : position.getInt("x");
+        int y = position == null ? 0 : position.getInt("y");
+        int z = position == null ? 0 : position.getInt("z");
+        if (sx < 0) x += sx + 1;
+        if (sy < 0) y += sy + 1;
+        if (sz < 0) z += sz + 1;
+
+        List<CompoundTag> palette = region.getList("BlockStatePalette", CompoundTag.class);
+        long[] longblockstates = region.getLongArray("BlockStates");
+
+        // Palette entries usually map to themselves, unless two of them end up as the same block string
+        int[] paletteIds = new int[palette.size()];
+        int paletteIndex = 0;
         for (CompoundTag block : palette) {
             CompoundTag properties = getTag(block.getValue(), "Properties", CompoundTag.class);
             String blocktype = requireTag(block.getValue(), "Name", StringTag.class).getValue();
@@ -77,20 +153,76 @@ public class LitematicaLoader extends MNBTSchematicReader {
             }
 
             String blockMetadata = "[" + property.toString().replaceAll("\"", "") + "]";
-            schematic.AddBlockToPalette(blocktype + (blockMetadata.equals("[]") ? "" : blockMetadata));
+            paletteIds[paletteIndex++] = schematic.AddBlockToPalette(blocktype + (blockMetadata.equals("[]") ? "" : blockMetadata));
         }
 
-        int index2 = 0;
-        for (int x = 0; x < Math.abs(width); x++) {
-            for (int y = 0; y < Math.abs(height); y++) {
-                for (int z = 0; z < Math.abs(length); z++) {
-                    schematic.AddBlock(arr.getAt(index2));
-                    index2++;
-                }
+        int volume = Math.abs(sx) * Math.abs(sy) * Math.abs(sz);
+        LitematicaBitArray states = new LitematicaBitArray(getBitsPerEntry(paletteIds.length, volume, longblockstates.length), volume, longblockstates);
+        return new Region(name, x, y, z, Math.abs(sx), Math.abs(sy), Math.abs(sz), paletteIds, states);
+    }
+
+    /**
+     * Same as litematica, the bits needed for the largest palette index but at least 2.
+     * Falls back to what the length of the block states implies when they do not match.
+     */
+    private static int getBitsPerEntry(int paletteSize, int volume, int longs) {
+        int bits = Math.max(2, Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(paletteSize - 1, 0)));
+        if (((long) volume * bits + 63L) / 64L == longs) return bits;
+
+        long implied = (long) longs * 64L / volume;
+        return implied >= 1 && implied <= 32 ? (int) implied : bits;
+    }
+
+    private record Region(String name, int x, int y, int z, int sizeX, int sizeY, int sizeZ, int[] paletteIds, LitematicaBitArray states) {
+
+        /**
+         * Writes the schematic palette ids of one row of x of the region into a row of the output.
+         * Indexes outside the palette, which corrupt or padded block states can have, become air.
+         *
+         * @param offsetX where the region starts in the output row
+         */
+        private void decodeRow(int ry, int rz, int offsetX, int[] out, int rowStart, int rowLength, int air) {
+            if (ry < 0 || ry >= sizeY || rz < 0 || rz >= sizeZ) return;
+            int from = Math.max(offsetX, 0);
+            int to = Math.min(offsetX + sizeX, rowLength);
+            if (from >= to) return;
+
+            states.getRange((long) (ry * sizeZ + rz) * sizeX + (from - offsetX), out, rowStart + from, to - from);
+            for (int i = rowStart + from; i < rowStart + to; i++) {
+                int id = out[i];
+                out[i] = id < paletteIds.length ? paletteIds[id] : air;
+            }
+        }
+    }
+
+    private Map<String, Tag> readRegions() throws IOException {
+        // Kept in file order, so overlapping regions are placed the same way every time
+        Map<String, Tag> regions = new LinkedHashMap<>();
+        int type;
+        while ((type = nbtInputStream.nextTag()) != NBTConstants.TYPE_END) {
+            String name = nbtInputStream.getTagName();
+            if (type == NBTConstants.TYPE_COMPOUND) {
+                regions.put(name, readRegion());
+            } else {
+                nbtInputStream.skipPayload(type);
             }
         }
+        return regions;
+    }
 
-        return schematic;
+    // Only the position, size, palette and block states are kept, entities, tile entities and ticks are skipped
+    private CompoundTag readRegion() throws IOException {
+        Map<String, Tag> region = new HashMap<>();
+        int type;
+        while ((type = nbtInputStream.nextTag()) != NBTConstants.TYPE_END) {
+            String name = nbtInputStream.getTagName();
+            if (name.equals("BlockStatePalette") || name.equals("BlockStates") || name.equals("Position") || name.equals("Size")) {
+                region.put(name, nbtInputStream.readPayload(type));
+            } else {
+                nbtInputStream.skipPayload(type);
+            }
+        }
+        return new CompoundTag(region);
     }
 
     @Override
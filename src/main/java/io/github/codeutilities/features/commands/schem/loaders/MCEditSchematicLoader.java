@@ -5,7 +5,11 @@ import java.util.HashMap;
 import java.util.Map;
 
 import io.github.codeutilities.features.commands.schem.Schematic;
-import io.github.codeutilities.features.commands.schem.sk89q.jnbt.*;
+import io.github.codeutilities.features.commands.schem.sk89q.jnbt.ByteArrayTag;
+import io.github.codeutilities.features.commands.schem.sk89q.jnbt.NBTConstants;
+import io.github.codeutilities.features.commands.schem.sk89q.jnbt.NBTInputStream;
+import io.github.codeutilities.features.commands.schem.sk89q.jnbt.ShortTag;
+import io.github.codeutilities.features.commands.schem.sk89q.jnbt.StringTag;
 
 public class MCEditSchematicLoader extends MNBTSchematicReader {
 
@@ -33,42 +37,48 @@ public class MCEditSchematicLoader extends MNBTSchematicReader {
 
         schematic.fileType = "MCEdit";
 
-        NamedTag namedTag = nbtInputStream.readNamedTag();
-        CompoundTag compoundTag = (CompoundTag) namedTag.getTag();
-
-        Map<String, Tag> schematicData = compoundTag.getValue();
-
-        StringTag materials = getTag(schematicData, "Materials", StringTag.class);
-        if (materials != null)
-            if (!materials.getValue().equals("Alpha"))
-                throw new RuntimeException("This schematic isn't supported !");
-
-        schematic.setWidth(requireTag(schematicData, "Width", ShortTag.class).getValue());
-        schematic.setHeight(requireTag(schematicData, "Height", ShortTag.class).getValue());
-        schematic.setLength(requireTag(schematicData, "Length", ShortTag.class).getValue());
-
-        byte[] blocks = requireTag(schematicData, "Blocks", ByteArrayTag.class).getValue();
-        byte[] data = requireTag(schematicData, "Data", ByteArrayTag.class).getValue();
+        Short width = null;
+        Short height = null;
+        Short length = null;
+        byte[] blocks = null;
+        byte[] data = null;
         byte[] addArray = new byte[0];
 
-        short[] blocksFinal = new short[blocks.length];
-
-        if (schematicData.containsKey("AddBlocks")) {
-            addArray = requireTag(schematicData, "AddBlocks", ByteArrayTag.class).getValue();
+        // Entities and tile entities are skipped without being read
+        beginRoot(nbtInputStream);
+        int type;
+        while ((type = nbtInputStream.nextTag()) != NBTConstants.TYPE_END) {
+            switch (nbtInputStream.getTagName()) {
+                case "Materials" -> {
+                    if (!readTag(nbtInputStream, type, StringTag.class).getValue().equals("Alpha"))
+                        throw new RuntimeException("This schematic isn't supported !");
+                }
+                case "Width" -> width = readTag(nbtInputStream, type, ShortTag.class).getValue();
+                case "Height" -> height = readTag(nbtInputStream, type, ShortTag.class).getValue();
+                case "Length" -> length = readTag(nbtInputStream, type, ShortTag.class).getValue();
+                case "Blocks" -> blocks = readTag(nbtInputStream, type, ByteArrayTag.class).getValue();
+                case "Data" -> data = readTag(nbtInputStream, type, ByteArrayTag.class).getValue();
+                case "AddBlocks" -> addArray = readTag(nbtInputStream, type, ByteArrayTag.class).getValue();
+                default -> nbtInputStream.skipPayload(type);
+            }
         }
 
+        schematic.setWidth(requireFound(width, "Width", ShortTag.class));
+        schematic.setHeight(requireFound(height, "Height", ShortTag.class));
+        schematic.setLength(requireFound(length, "Length", ShortTag.class));
+
+        requireFound(blocks, "Blocks", ByteArrayTag.class);
+        requireFound(data, "Data", ByteArrayTag.class);
+
         for (int i = 0; i < blocks.length; i++) {
+            short blockValue;
             if ((i >> 1) >= addArray.length) {
-                blocksFinal[i] = ((short) (blocks[i] & 255));
+                blockValue = ((short) (blocks[i] & 255));
             } else if ((i & 1) == 0) {
-                blocksFinal[i] = ((short) (((addArray[i >> 1] & 15) << 8) + (blocks[i] & 255)));
+                blockValue = ((short) (((addArray[i >> 1] & 15) << 8) + (blocks[i] & 255)));
             } else {
-                blocksFinal[i] = ((short) (((addArray[i >> 1] & 240) << 4) + (blocks[i] & 255)));
+                blockValue = ((short) (((addArray[i >> 1] & 240) << 4) + (blocks[i] & 255)));
             }
-        }
-
-        for (int i = 0; i < blocks.length; i++) {
-            short blockValue = blocksFinal[i];
             byte blockMetadata = data[i];
 
             String block = legacyBlocksList.get(blockValue + ":" + blockMetadata);
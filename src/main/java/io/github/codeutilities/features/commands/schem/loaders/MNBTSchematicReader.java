@@ -22,6 +22,8 @@ package io.github.codeutilities.features.commands.schem.loaders;
 import java.io.IOException;
 import java.util.Map;
 
+import io.github.codeutilities.features.commands.schem.sk89q.jnbt.NBTConstants;
+import io.github.codeutilities.features.commands.schem.sk89q.jnbt.NBTInputStream;
 import io.github.codeutilities.features.commands.schem.sk89q.jnbt.Tag;
 
 /**
@@ -56,4 +58,49 @@ public abstract class MNBTSchematicReader implements MSchematicReader {
 
         return expected.cast(test);
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the payload of the tag the stream is at, which has to be of the expected type.
+     */
+    protected static <T extends Tag> T readTag(NBTInputStream stream, int type, Class<T> expected) throws IOException {
+        requireType(stream, type, expected);
+        return expected.cast(stream.readPayload(type));
+    }
+
+    /**
+     * Checks the type of the tag the stream is at, before its payload is streamed.
+     */
+    protected static void requireType(NBTInputStream stream, int type, Class<? extends Tag> expected) throws IOException {
+        Class<? extends Tag> actual;
+        try {
+            actual = NBTConstants.getClassFromType(type);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        if (actual != expected) {
+            throw new IOException(stream.getTagName() + " tag is not of tag type " + expected.getName() + ", got "
+                    + actual.getName() + " instead");
+        }
+    }
+
+    /**
+     * Fails like {@link #requireTag} when a tag was not found while streaming.
+     */
+    protected static <T> T requireFound(T value, String key, Class<? extends Tag> expected) throws IOException {
+        if (value == null) {
+            throw new IOException("Schematic file is missing a \"" + key + "\" tag of type "
+                    + expected.getName());
+        }
+        return value;
+    }
+
+    /**
+     * Reads the name and type of the root tag, which has to be a compound.
+     */
+    protected static void beginRoot(NBTInputStream stream) throws IOException {
+        int type = stream.nextTag();
+        if (type != NBTConstants.TYPE_COMPOUND) {
+            throw new IOException("Schematic file does not start with a compound tag");
+        }
+    }
+}
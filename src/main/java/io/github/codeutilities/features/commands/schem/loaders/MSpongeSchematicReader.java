@@ -20,23 +20,14 @@
 package io.github.codeutilities.features.commands.schem.loaders;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
 import io.github.codeutilities.features.commands.schem.Schematic;
 import io.github.codeutilities.features.commands.schem.sk89q.jnbt.ByteArrayTag;
 import io.github.codeutilities.features.commands.schem.sk89q.jnbt.CompoundTag;
-import io.github.codeutilities.features.commands.schem.sk89q.jnbt.IntArrayTag;
 import io.github.codeutilities.features.commands.schem.sk89q.jnbt.IntTag;
-import io.github.codeutilities.features.commands.schem.sk89q.jnbt.ListTag;
+import io.github.codeutilities.features.commands.schem.sk89q.jnbt.NBTConstants;
 import io.github.codeutilities.features.commands.schem.sk89q.jnbt.NBTInputStream;
-import io.github.codeutilities.features.commands.schem.sk89q.jnbt.NamedTag;
 import io.github.codeutilities.features.commands.schem.sk89q.jnbt.ShortTag;
-import io.github.codeutilities.features.commands.schem.sk89q.jnbt.Tag;
-import io.github.codeutilities.features.commands.schem.sk89q.worldedit.math.BlockVector3;
 
 /**
  * Reads schematic files using the Sponge Schematic Specification.
@@ -60,116 +51,112 @@ public class MSpongeSchematicReader extends MNBTSchematicReader {
 
     @Override
     public Schematic read() throws IOException {
-        CompoundTag schematicTag = getBaseTag();
-        Map<String, Tag> schematic = schematicTag.getValue();
-
-        if (schematicVersion == 1) {
-            return readVersion1(schematicTag);
-        } else if (schematicVersion == 2) {
-            requireTag(schematic, "DataVersion", IntTag.class);
-
-            Schematic clip = readVersion1(schematicTag);
-            return readVersion2(clip);
-        }
-        throw new IOException("This schematic version is currently not supported");
-    }
-
-    private CompoundTag getBaseTag() throws IOException {
-        NamedTag rootTag = inputStream.readNamedTag();
-        CompoundTag schematicTag = (CompoundTag) rootTag.getTag();
-
-        // Check
-        Map<String, Tag> schematic = schematicTag.getValue();
-
-        schematicVersion = requireTag(schematic, "Version", IntTag.class).getValue();
-        return schematicTag;
-    }
-
-    private Schematic readVersion1(CompoundTag schematicTag) throws IOException {
         Schematic clipboard = new Schematic();
-        Map<String, Tag> schematic = schematicTag.getValue();
-
-        int width = requireTag(schematic, "Width", ShortTag.class).getValue();
-        int height = requireTag(schematic, "Height", ShortTag.class).getValue();
-        int length = requireTag(schematic, "Length", ShortTag.class).getValue();
-
-        IntTag paletteMaxTag = getTag(schematic, "PaletteMax", IntTag.class);
-        Map<String, Tag> paletteObject = requireTag(schematic, "Palette", CompoundTag.class).getValue();
-        if (paletteMaxTag != null && paletteObject.size() != paletteMaxTag.getValue()) {
-            throw new IOException("Block palette size does not match expected size.");
+        Integer width = null;
+        Integer height = null;
+        Integer length = null;
+        Integer paletteMax = null;
+        int paletteSize = -1;
+        boolean hasBlockData = false;
+        boolean hasDataVersion = false;
+
+        // The tags are streamed in whatever order they are stored, so everything is validated at the end.
+        // When the size comes before the block data, the block store is allocated at its full size right away
+        beginRoot(inputStream);
+        int type;
+        while ((type = inputStream.nextTag()) != NBTConstants.TYPE_END) {
+            switch (inputStream.getTagName()) {
+                case "Version" -> schematicVersion = readTag(inputStream, type, IntTag.class).getValue();
+                case "DataVersion" -> {
+                    readTag(inputStream, type, IntTag.class);
+                    hasDataVersion = true;
+                }
+                case "Width" -> {
+                    width = (int) readTag(inputStream, type, ShortTag.class).getValue();
+                    clipboard.setWidth(width);
+                }
+                case "Height" -> {
+                    height = (int) readTag(inputStream, type, ShortTag.class).getValue();
+                    clipboard.setHeight(height);
+                }
+                case "Length" -> {
+                    length = (int) readTag(inputStream, type, ShortTag.class).getValue();
+                    clipboard.setLength(length);
+                }
+                case "PaletteMax" -> paletteMax = readTag(inputStream, type, IntTag.class).getValue();
+                case "Palette" -> {
+                    requireType(inputStream, type, CompoundTag.class);
+                    paletteSize = readPalette(clipboard);
+                }
+                case "BlockData" -> {
+                    requireType(inputStream, type, ByteArrayTag.class);
+                    readBlockData(clipboard);
+                    hasBlockData = true;
+                }
+                // Block entities and entities are not used
+                default -> inputStream.skipPayload(type);
+            }
         }
 
-        Map<Integer, String> palette = new HashMap<>();
-
-        for (String palettePart : paletteObject.keySet()) {
-            int id = requireTag(paletteObject, palettePart, IntTag.class).getValue();
-
-            palette.put(id, palettePart);
+        if (schematicVersion != 1 && schematicVersion != 2) {
+            throw new IOException("This schematic version is currently not supported");
         }
-
-        byte[] blocks = requireTag(schematic, "BlockData", ByteArrayTag.class).getValue();
-
-        Map<BlockVector3, Map<String, Tag>> tileEntitiesMap = new HashMap<>();
-        ListTag tileEntities = getTag(schematic, "BlockEntities", ListTag.class);
-        if (tileEntities == null) {
-            tileEntities = getTag(schematic, "TileEntities", ListTag.class);
+        if (schematicVersion == 2 && !hasDataVersion) {
+            requireFound(null, "DataVersion", IntTag.class);
         }
-        if (tileEntities != null) {
-            List<Map<String, Tag>> tileEntityTags = tileEntities.getValue().stream()
-                    .map(tag -> (CompoundTag) tag)
-                    .map(CompoundTag::getValue)
-                    .collect(Collectors.toList());
-
-            for (Map<String, Tag> tileEntity : tileEntityTags) {
-                int[] pos = requireTag(tileEntity, "Pos", IntArrayTag.class).getValue();
-                final BlockVector3 pt = BlockVector3.at(pos[0], pos[1], pos[2]);
-                Map<String, Tag> values = new HashMap<>(tileEntity);
-                values.put("x", new IntTag(pt.getBlockX()));
-                values.put("y", new IntTag(pt.getBlockY()));
-                values.put("z", new IntTag(pt.getBlockZ()));
-                values.put("id", values.get("Id"));
-                values.remove("Id");
-                values.remove("Pos");
-                tileEntity = values;
-                tileEntitiesMap.put(pt, tileEntity);
-            }
+        requireFound(width, "Width", ShortTag.class);
+        requireFound(height, "Height", ShortTag.class);
+        requireFound(length, "Length", ShortTag.class);
+        if (paletteSize == -1) {
+            requireFound(null, "Palette", CompoundTag.class);
         }
+        if (paletteMax != null && paletteSize != paletteMax) {
+            throw new IOException("Block palette size does not match expected size.");
+        }
+        if (!hasBlockData) {
+            requireFound(null, "BlockData", ByteArrayTag.class);
+        }
+
+        return clipboard;
+    }
 
-        clipboard.setWidth(width);
-        clipboard.setHeight(height);
-        clipboard.setLength(length);
+    private int readPalette(Schematic clipboard) throws IOException {
+        int size = 0;
+        int type;
+        while ((type = inputStream.nextTag()) != NBTConstants.TYPE_END) {
+            String palettePart = inputStream.getTagName();
+            int id = readTag(inputStream, type, IntTag.class).getValue();
 
-        for (Entry<Integer, String> paletteBlock : palette.entrySet()) {
-            clipboard.AddBlockToPalette(paletteBlock.getKey(), paletteBlock.getValue());
+            clipboard.AddBlockToPalette(id, palettePart);
+            size++;
         }
+        return size;
+    }
 
-        int i = 0;
-        int value;
-        int varIntLength;
-        while (i < blocks.length) {
-            value = 0;
-            varIntLength = 0;
+    // The block data is a list of VarInts, which is decoded straight into the schematic
+    private void readBlockData(Schematic clipboard) throws IOException {
+        int remaining = inputStream.readLength();
+        byte[] buffer = new byte[8192];
+        int value = 0;
+        int varIntLength = 0;
 
-            while (true) {
-                value |= (blocks[i] & 127) << (varIntLength++ * 7);
+        while (remaining > 0) {
+            int read = Math.min(buffer.length, remaining);
+            inputStream.readBytes(buffer, 0, read);
+            remaining -= read;
+
+            for (int i = 0; i < read; i++) {
+                value |= (buffer[i] & 127) << (varIntLength++ * 7);
                 if (varIntLength > 5) {
                     throw new IOException("VarInt too big (probably corrupted data)");
                 }
-                if ((blocks[i] & 128) != 128) {
-                    i++;
-                    break;
+                if ((buffer[i] & 128) != 128) {
+                    clipboard.AddBlock(value);
+                    value = 0;
+                    varIntLength = 0;
                 }
-                i++;
             }
-
-            clipboard.AddBlock(value);
         }
-
-        return clipboard;
-    }
-
-    private Schematic readVersion2(Schematic version1) {
-        return version1;
     }
 
     @Override
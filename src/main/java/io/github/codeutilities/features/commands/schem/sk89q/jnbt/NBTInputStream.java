@@ -19,6 +19,7 @@
 
 package io.github.codeutilities.features.commands.schem.sk89q.jnbt;
 
+import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.IOException;
@@ -38,10 +39,18 @@ import java.util.Map;
  * found at <a href="https://minecraft.gamepedia.com/NBT_format">
  * https://minecraft.gamepedia.com/NBT_format</a>.
  * </p>
+ *
+ * <p>
+ * Tags can also be walked one at a time without building the tree: {@link #nextTag()} reads the type and name
+ * of the next tag, after which its payload is read with {@link #readPayload(int)}, skipped with
+ * {@link #skipPayload(int)}, or for a compound walked by calling {@link #nextTag()} until it returns
+ * {@link NBTConstants#TYPE_END}. Arrays can be read element by element after {@link #readLength()}.
+ * </p>
  */
 public final class NBTInputStream implements Closeable {
 
     private final DataInputStream is;
+    private String tagName = "";
 
     /**
      * Creates a new {@code NBTInputStream}, which will source its data
@@ -50,7 +59,7 @@ public final class NBTInputStream implements Closeable {
      * @param is the input stream
      */
     public NBTInputStream(InputStream is) {
-        this.is = new DataInputStream(is);
+        this.is = new DataInputStream(new BufferedInputStream(is));
     }
 
     /**
@@ -171,6 +180,147 @@ public final class NBTInputStream implements Closeable {
         }
     }
 
+    /**
+     * Reads the type and the name of the next tag.
+     *
+     * @return the type of the tag, {@link NBTConstants#TYPE_END} at the end of a compound
+     * @throws IOException if an I/O error occurs.
+     */
+    public int nextTag() throws IOException {
+        int type = is.readByte() & 0xFF;
+        if (type == NBTConstants.TYPE_END) {
+            tagName = "";
+        } else {
+            int nameLength = is.readShort() & 0xFFFF;
+            byte[] nameBytes = new byte[nameLength];
+            is.readFully(nameBytes);
+            tagName = new String(nameBytes, NBTConstants.CHARSET);
+        }
+        return type;
+    }
+
+    /**
+     * @return the name of the tag last read by {@link #nextTag()}
+     */
+    public String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * Reads the payload of the current tag as a whole.
+     *
+     * @param type the type returned by {@link #nextTag()}
+     * @return the tag
+     * @throws IOException if an I/O error occurs.
+     */
+    public Tag readPayload(int type) throws IOException {
+        return readTagPayload(type, 1);
+    }
+
+    /**
+     * Skips the payload of the current tag without reading it into memory.
+     *
+     * @param type the type returned by {@link #nextTag()}
+     * @throws IOException if an I/O error occurs.
+     */
+    public void skipPayload(int type) throws IOException {
+        switch (type) {
+            case NBTConstants.TYPE_BYTE_ARRAY:
+                skip(is.readInt());
+                break;
+            case NBTConstants.TYPE_STRING:
+                skip(is.readShort() & 0xFFFF);
+                break;
+            case NBTConstants.TYPE_LIST:
+                int childType = is.readByte();
+                int length = is.readInt();
+                int size = getPayloadSize(childType);
+                if (size >= 0) {
+                    skip((long) size * length);
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        skipPayload(childType);
+                    }
+                }
+                break;
+            case NBTConstants.TYPE_COMPOUND:
+                int child;
+                while ((child = nextTag()) != NBTConstants.TYPE_END) {
+                    skipPayload(child);
+                }
+                break;
+            case NBTConstants.TYPE_INT_ARRAY:
+                skip(4L * is.readInt());
+                break;
+            case NBTConstants.TYPE_LONG_ARRAY:
+                skip(8L * is.readInt());
+                break;
+            default:
+                size = getPayloadSize(type);
+                if (size < 0) {
+                    throw new IOException("Invalid tag type: " + type + ".");
+                }
+                skip(size);
+        }
+    }
+
+    /**
+     * @return the size of a payload of the given type, or -1 if it is not fixed
+     */
+    private static int getPayloadSize(int type) {
+        switch (type) {
+            case NBTConstants.TYPE_END:
+                return 0;
+            case NBTConstants.TYPE_BYTE:
+                return 1;
+            case NBTConstants.TYPE_SHORT:
+                return 2;
+            case NBTConstants.TYPE_INT:
+            case NBTConstants.TYPE_FLOAT:
+                return 4;
+            case NBTConstants.TYPE_LONG:
+            case NBTConstants.TYPE_DOUBLE:
+                return 8;
+            default:
+                return -1;
+        }
+    }
+
+    private void skip(long bytes) throws IOException {
+        while (bytes > 0) {
+            int skipped = is.skipBytes((int) Math.min(bytes, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                // Throws at the end of the stream
+                is.readByte();
+                skipped = 1;
+            }
+            bytes -= skipped;
+        }
+    }
+
+    /**
+     * Reads the length of the current array tag, after which its elements can be read one at a time.
+     *
+     * @return the amount of elements
+     * @throws IOException if an I/O error occurs.
+     */
+    public int readLength() throws IOException {
+        int length = is.readInt();
+        if (length < 0) {
+            throw new IOException("Negative array length: " + length + ".");
+        }
+        return length;
+    }
+
+    /**
+     * Reads the next elements of a byte array.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void readBytes(byte[] bytes, int offset, int length) throws IOException {
+        is.readFully(bytes, offset, length);
+    }
+
     @Override
     public void close() throws IOException {
         is.close();
@@ -1,66 +1,55 @@
 package io.github.codeutilities.features.commands.schem.utils;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
 import io.github.codeutilities.features.commands.schem.Schematic;
+import io.github.codeutilities.util.template.TemplateWriter;
 
 public class DFUtils {
 
+    // Part of the key of cached templates, has to change whenever the generated templates do
+    public static final String TEMPLATE_VERSION = "1";
+    private static final int BLOCKS_PER_TEMPLATE = 3;
+    private static final int VALUES_PER_ACTION = 26;
+    // Lists hold up to 10000 values
+    private static final int VALUES_PER_LIST = 384 * VALUES_PER_ACTION;
+    private static final int RUNS_PER_TEXT = 500;
+
     public static String GenerateFunctionHeader(String functionName) {
         return "{\"id\":\"block\",\"block\":\"func\",\"args\":{\"items\":[]},\"data\":\"" + functionName + "\"}";
     }
 
-    public static String GeneratePaletteList(DFText... texts) {
-        ArrayList<String> jsons = new ArrayList<>();
-
-        for (int actionIndex = 0; actionIndex < Math.ceil(texts.length / 26f); actionIndex++) {
-            String json = "{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[";
-            List<String> itemsJSON = new ArrayList<>();
-
-            itemsJSON.add("{\"item\":" + "{\"id\":\"var\",\"data\":{\"name\":\"Palette\",\"scope\":\"local\"}}" + ",\"slot\":" + 0 + "}");
+    public static void GeneratePaletteList(TemplateWriter out, DFText... texts) throws IOException {
+        for (int actionIndex = 0; actionIndex * VALUES_PER_ACTION < texts.length; actionIndex++) {
+            Writer json = out.beginBlock();
+            beginSetVar(json, "Palette");
 
-            for (int i = (actionIndex * 26); i < ((actionIndex + 1) * 26); i++) {
-                if (texts.length == i) break;
-                itemsJSON.add("{\"item\":" + texts[i].asJson() + ",\"slot\":" + ((i % 26) + 1) + "}");
+            for (int i = actionIndex * VALUES_PER_ACTION; i < Math.min((actionIndex + 1) * VALUES_PER_ACTION, texts.length); i++) {
+                json.write(",{\"item\":" + texts[i].asJson() + ",\"slot\":" + ((i % VALUES_PER_ACTION) + 1) + "}");
             }
 
-            json += String.join(",", itemsJSON);
-            if (actionIndex == 0) json += "]},\"action\":\"" + "CreateList" + "\"}";
-            else json += "]},\"action\":\"" + "AppendValue" + "\"}";
-            jsons.add(json);
+            endSetVar(json, actionIndex == 0 ? "CreateList" : "AppendValue");
+            out.endBlock();
         }
-
-        return String.join(",", jsons);
     }
 
-    public static String GenerateBlockDataList(DFText... texts) {
-        System.out.println("len=" + texts.length);
-        ArrayList<String> jsons = new ArrayList<>();
-        for (int blockDataIndex = 1; blockDataIndex <= Math.ceil(texts.length / 10000f); blockDataIndex++) {
-            int actionIndexLimit = (Math.ceil(texts.length / 26f) > 384) ? 384 : (int) Math.ceil((float) texts.length / 26f);
-
-            for (int actionIndex = 1; actionIndex <= actionIndexLimit; actionIndex++) {
-                System.out.println("iter");
-                String json = "{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[";
-                List<String> itemsJSON = new ArrayList<>();
-
-                itemsJSON.add("{\"item\":" + "{\"id\":\"var\",\"data\":{\"name\":\"BlockData" + blockDataIndex + "\",\"scope\":\"local\"}}" + ",\"slot\":" + 0 + "}");
-
-                for (int i = ((actionIndex - 1) * 26); i < (actionIndex * 26); i++) {
-                    if (texts.length == i) break;
-                    itemsJSON.add("{\"item\":" + texts[i].asJson() + ",\"slot\":" + ((i % 26) + 1) + "}");
-                }
-
-                json += String.join(",", itemsJSON);
-                if (actionIndex == 1) json += "]},\"action\":\"" + "CreateList" + "\"}";
-                else json += "]},\"action\":\"" + "AppendValue" + "\"}";
-                jsons.add(json);
-            }
-        }
+    /**
+     * Writes the blocks as texts of {@value #RUNS_PER_TEXT} runs, into as many lists as needed.
+     * The runs are written as they are encoded, without building the texts first.
+     */
+    public static void GenerateBlockDataList(TemplateWriter out, Schematic schematic) throws IOException {
+        BlockDataWriter writer = new BlockDataWriter(out);
+        schematic.forEachBlockRun(writer);
+        writer.finish();
+    }
 
-        return String.join(",", jsons);
+    public static int GetBlockDataListAmount(int runs) {
+        int texts = (runs + RUNS_PER_TEXT - 1) / RUNS_PER_TEXT;
+        return (texts + VALUES_PER_LIST - 1) / VALUES_PER_LIST;
     }
 
     public static String GenerateSchematicData(Schematic schematic, String fallbackName) {
@@ -88,24 +77,28 @@ public class DFUtils {
         return json;
     }
 
-    public static String[] GenerateSchematicFunction(Schematic schematic, String fallbackName) {
-        String schemDataJson = DFUtils.GenerateSchematicData(schematic, fallbackName);
-        String paletteJson = DFUtils.GeneratePaletteList(schematic.getPaletteTexts());
-        String blocksJson = DFUtils.GenerateBlockDataList(schematic.getBlocksTexts());
-        String functionHeader = DFUtils.GenerateFunctionHeader(
-                schematic.name.equals("Unnamed") ? schematic.name : fallbackName);
-
-        return SplitJson(functionHeader + "," + schemDataJson + "," + paletteJson + "," + blocksJson);
+    /**
+     * Writes the function, {@value #BLOCKS_PER_TEMPLATE} code blocks per template.
+     *
+     * @param templates Receives the compressed code data of every template
+     */
+    public static void GenerateSchematicFunction(Schematic schematic, String fallbackName, Consumer<String> templates) throws IOException {
+        try (TemplateWriter out = new TemplateWriter(BLOCKS_PER_TEMPLATE, templates)) {
+            out.writeBlock(DFUtils.GenerateFunctionHeader(
+                    schematic.name.equals("Unnamed") ? schematic.name : fallbackName));
+            out.writeBlock(DFUtils.GenerateSchematicData(schematic, fallbackName));
+            DFUtils.GeneratePaletteList(out, schematic.getPaletteTexts());
+            DFUtils.GenerateBlockDataList(out, schematic);
+        }
     }
 
-    public static String[] SplitJson(String json) {
-        String[] result = StringUtils.JoinString(3, ",", json.split("(?<=}),(?=\\{\"id\")"));
-
-        for (int i = 0; i < result.length; i++) {
-            result[i] = "{\"blocks\":[" + result[i] + "]}";
-        }
+    private static void beginSetVar(Writer json, String variable) throws IOException {
+        json.write("{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[");
+        json.write("{\"item\":{\"id\":\"var\",\"data\":{\"name\":\"" + variable + "\",\"scope\":\"local\"}},\"slot\":0}");
+    }
 
-        return result;
+    private static void endSetVar(Writer json, String action) throws IOException {
+        json.write("]},\"action\":\"" + action + "\"}");
     }
 
     //Code taken from https://stackoverflow.com/questions/43057690/java-stream-collect-every-n-elements/47112162
@@ -114,4 +107,58 @@ public class DFUtils {
                 .mapToObj(i -> new DFText(String.join(delimiter, list.subList(i * iterations, Math.min(iterations * (i + 1), list.size())))))
                 .toArray(DFText[]::new);
     }
+
+    private static class BlockDataWriter implements Schematic.BlockRunConsumer {
+        private final TemplateWriter out;
+        private Writer json = null;
+        private int list = 0;
+        private int actionsInList = 0;
+        private int textsInAction = 0;
+        private int runsInText = 0;
+
+        private BlockDataWriter(TemplateWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(String code, int repeated) throws IOException {
+            if (runsInText == 0) beginText();
+
+            json.write(code);
+            if (repeated != 1) json.write(Integer.toString(repeated));
+
+            if (++runsInText == RUNS_PER_TEXT) endText();
+        }
+
+        private void beginText() throws IOException {
+            if (json == null) {
+                if (actionsInList == 0 || actionsInList == VALUES_PER_LIST / VALUES_PER_ACTION) {
+                    list++;
+                    actionsInList = 0;
+                }
+                json = out.beginBlock();
+                beginSetVar(json, "BlockData" + list);
+            }
+            json.write(",{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"");
+        }
+
+        private void endText() throws IOException {
+            json.write("\"}},\"slot\":" + (++textsInAction) + "}");
+            runsInText = 0;
+            if (textsInAction == VALUES_PER_ACTION) endAction();
+        }
+
+        private void endAction() throws IOException {
+            endSetVar(json, actionsInList == 0 ? "CreateList" : "AppendValue");
+            out.endBlock();
+            json = null;
+            actionsInList++;
+            textsInAction = 0;
+        }
+
+        private void finish() throws IOException {
+            if (runsInText > 0) endText();
+            if (json != null) endAction();
+        }
+    }
 }
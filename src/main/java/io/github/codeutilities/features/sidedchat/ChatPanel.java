@@ -0,0 +1,189 @@
+package io.github.codeutilities.features.sidedchat;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import java.util.Arrays;
+import java.util.List;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.hud.ChatHudLine;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BufferRenderer;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.LightmapTextureManager;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.text.OrderedText;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Matrix4f;
+
+/**
+ * The laid out lines of one chat column. The layout is kept until the lines, the scroll, the size or the chat options
+ * change, or a shown message reaches the next step of fading out. Drawing it takes one batch for all backgrounds
+ * and one for all text, instead of a fill and a text draw per line.
+ */
+public class ChatPanel {
+
+    // see ChatHud#getMessageOpacityMultiplier
+    private static final int FADE_START = 180;
+    private static final int FADE_END = 200;
+
+    private static final Timings TIMINGS = new Timings();
+
+    private Key key;
+    private int validUntil;
+    private Row[] rows = new Row[0];
+    private int renderedLines;
+
+    /**
+     * Lays out the lines again if anything shown changed.
+     *
+     * @param lines The lines to display, starting at the bottom
+     * @param ticks The current ticks of the chat hud
+     * @return The amount of lines shown, faded out lines not included
+     */
+    public int update(Key key, List<ChatHudLine<OrderedText>> lines, int ticks) {
+        if (key.equals(this.key) && ticks < validUntil) {
+            return renderedLines;
+        }
+        this.key = key;
+        this.validUntil = Integer.MAX_VALUE;
+
+        Row[] rows = new Row[lines.size()];
+        int count = 0;
+        int renderedLines = 0;
+        double lineSpacing = 9.0D * (key.lineSpacing + 1.0D);
+        double lineSpacing2 = -8.0D * (key.lineSpacing + 1.0D) + 4.0D * key.lineSpacing;
+        double opacity = key.opacity * 0.8999999761581421D + 0.10000000149011612D;
+
+        for (int i = 0; i < lines.size(); i++) {
+            ChatHudLine<OrderedText> line = lines.get(i);
+            int age = ticks - line.getCreationTick();
+            if (age >= FADE_END && !key.focused) {
+                continue;
+            }
+            if (!key.focused) {
+                validUntil = Math.min(validUntil, line.getCreationTick() + (age < FADE_START ? FADE_START : age + 1));
+            }
+
+            double o = key.focused ? 1.0D : getOpacityMultiplier(age);
+            int textAlpha = (int) (255.0D * o * opacity);
+            int backgroundAlpha = (int) (255.0D * o * key.backgroundOpacity);
+            renderedLines++;
+            // the text renderer draws anything more transparent than this fully opaque
+            if (textAlpha > 3) {
+                double s = (double) (-i) * lineSpacing;
+                rows[count++] = new Row(line.getText(), (int) (s - lineSpacing), (int) s,
+                        (int) (s + lineSpacing2), 16777215 + (textAlpha << 24), backgroundAlpha << 24);
+            }
+        }
+
+        this.rows = count == rows.length ? rows : Arrays.copyOf(rows, count);
+        this.renderedLines = renderedLines;
+        return renderedLines;
+    }
+
+    @SuppressWarnings("deprecation")
+    public void draw(MatrixStack matrices, TextRenderer textRenderer) {
+        if (rows.length == 0) {
+            return;
+        }
+        int k = MathHelper.ceil((double) key.width / key.scale);
+
+        matrices.push();
+        matrices.translate(4.0, 8.0, 0.0);
+        matrices.scale((float) key.scale, (float) key.scale, 1.0f);
+        matrices.translate(key.displayX, 0, 50.0D);
+
+        Matrix4f matrix = matrices.peek().getPositionMatrix();
+        RenderSystem.enableBlend();
+        RenderSystem.disableTexture();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.setShader(GameRenderer::getPositionColorShader);
+        BufferBuilder buffer = Tessellator.getInstance().getBuffer();
+        buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
+        for (Row row : rows) {
+            int a = row.backgroundColor >>> 24;
+            buffer.vertex(matrix, -2, row.bottom, 0).color(0, 0, 0, a).next();
+            buffer.vertex(matrix, k + 4, row.bottom, 0).color(0, 0, 0, a).next();
+            buffer.vertex(matrix, k + 4, row.top, 0).color(0, 0, 0, a).next();
+            buffer.vertex(matrix, -2, row.top, 0).color(0, 0, 0, a).next();
+        }
+        buffer.end();
+        BufferRenderer.draw(buffer);
+        RenderSystem.enableTexture();
+
+        matrices.translate(0.0D, 0.0D, 50.0D);
+        matrix = matrices.peek().getPositionMatrix();
+        VertexConsumerProvider.Immediate immediate = VertexConsumerProvider.immediate(buffer);
+        for (Row row : rows) {
+            textRenderer.draw(row.text, 0.0F, (float) row.textY, row.textColor, true, matrix, immediate,
+                    false, 0, LightmapTextureManager.MAX_LIGHT_COORDINATE);
+        }
+        immediate.draw();
+        RenderSystem.disableBlend();
+
+        matrices.pop();
+    }
+
+    private static double getOpacityMultiplier(int age) {
+        double d = (double) age / FADE_END;
+        d = 1.0D - d;
+        d *= 10.0D;
+        d = MathHelper.clamp(d, 0.0D, 1.0D);
+        return d * d;
+    }
+
+    public static Timings getTimings() {
+        return TIMINGS;
+    }
+
+    /**
+     * Everything the layout depends on besides the lines themselves and the time.
+     *
+     * @param version Changes whenever lines are added or removed
+     */
+    public record Key(int version, int scrolledLines, int displayX, int width, boolean focused, double scale,
+                      double opacity, double backgroundOpacity, double lineSpacing) {
+    }
+
+    private record Row(OrderedText text, int top, int bottom, int textY, int textColor, int backgroundColor) {
+    }
+
+    /**
+     * Frame times of drawing the chat directly and from the cached layout, measured in turns while debug mode is on.
+     */
+    public static class Timings {
+        private long directFrames = 0;
+        private long directNanos = 0;
+        private long cachedFrames = 0;
+        private long cachedNanos = 0;
+        private boolean cachedTurn = false;
+
+        /**
+         * @return whether the cached layout should be used for this frame, then flips to the other one
+         */
+        public boolean nextIsCached() {
+            cachedTurn = !cachedTurn;
+            return cachedTurn;
+        }
+
+        public void record(boolean cached, long nanos) {
+            if (cached) {
+                cachedFrames++;
+                cachedNanos += nanos;
+            } else {
+                directFrames++;
+                directNanos += nanos;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Chat render: direct avg %.1fµs, cached avg %.1fµs",
+                    directFrames == 0 ? 0 : directNanos / 1000d / directFrames,
+                    cachedFrames == 0 ? 0 : cachedNanos / 1000d / cachedFrames);
+        }
+    }
+}
@@ -33,6 +33,20 @@ public class ChatPattern {
         return false;
     }
 
+    List<ChatComponent> getComponents() {
+        return chatComponents;
+    }
+
+    /**
+     * @return the component {@link #ChatPattern(Text)} would list first, without flattening the rest of the text
+     */
+    static Text firstComponent(Text text) {
+        while (!text.getSiblings().isEmpty()) {
+            text = text.getSiblings().get(0);
+        }
+        return text;
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
@@ -83,6 +97,18 @@ public class ChatPattern {
             return this.pos == -1 || this.pos == pos;
         }
 
+        String getString() {
+            return string;
+        }
+
+        TextColor getColor() {
+            return color;
+        }
+
+        int getPos() {
+            return pos;
+        }
+
         @Override
         public String toString() {
             if (color != null)
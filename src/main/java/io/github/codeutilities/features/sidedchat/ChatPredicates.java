@@ -1,13 +1,13 @@
 package io.github.codeutilities.features.sidedchat;
 
-import com.google.common.collect.Lists;
-import io.github.codeutilities.config.Config;
+import io.github.codeutilities.config.ConfigKey;
 import io.github.codeutilities.util.Regex;
+import io.github.codeutilities.util.chat.text.MessageAnalysis;
 import net.minecraft.text.Text;
 import net.minecraft.text.TextColor;
 import net.minecraft.util.Formatting;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.stream.Collectors;
@@ -16,30 +16,28 @@ public class ChatPredicates {
     private static final String CUSTOM_WORDS_DELIMINITER = ",";
 
     //CUSTOM
-    public static Predicate<Text> getCustomPredicate() {
-        return iTextComponent -> {
-            List<String> customWords = getCustomWords();
-
-            if (customWords.size() == 0 || getCustomWordsString().trim().length()==0) return false; // do no checks if the input is empty
-
-//            Main.log(new ChatPattern(iTextComponent).toString());
-            for (String customWord : customWords) {
-                if (iTextComponent.getString().contains(customWord)) return true;
-            }
+    private static final ConfigKey<String> CUSTOM_FILTER = ConfigKey.of("custom_filter", String.class)
+            .onChange(value -> customWords = null);
+    private static KeywordMatcher customWords = null; // rebuilt when the filter changes
 
-            return false;
-        };
+    public static Predicate<Text> getCustomPredicate() {
+        return new CustomWordsPredicate();
     }
 
     public static String getCustomWordsString() {
-        return Config.getString("custom_filter");
+        return CUSTOM_FILTER.get();
     }
 
-    private static List<String> getCustomWords() {
-        return Lists.newArrayList(getCustomWordsString().split(CUSTOM_WORDS_DELIMINITER))
-                .stream() // trim each word then collect
-                .map(String::trim)
-                .collect(Collectors.toList());
+    static KeywordMatcher getCustomWords() {
+        KeywordMatcher words = customWords;
+        if (words == null) {
+            words = new KeywordMatcher(Arrays.stream(getCustomWordsString().split(CUSTOM_WORDS_DELIMINITER))
+                    .map(String::trim) // trim each word, empty ones would match everything
+                    .filter(word -> !word.isEmpty())
+                    .collect(Collectors.toList()));
+            customWords = words;
+        }
+        return words;
     }
 
     //MESSAGE
@@ -48,8 +46,9 @@ public class ChatPredicates {
     private static final Regex messageChatPattern2 = Regex.of("^\\[(.+) → You\\] (.+)$");
     public static Predicate<Text> getMessagePredicate() {
         return text -> {
-            Matcher matcher = messageChatPattern.getMatcher(text.getString());
-            Matcher matcher2 = messageChatPattern2.getMatcher(text.getString());
+            String stripped = MessageAnalysis.of(text).getStripped();
+            Matcher matcher = messageChatPattern.getMatcher(stripped);
+            Matcher matcher2 = messageChatPattern2.getMatcher(stripped);
             return matcher.find() || matcher2.find();
         };
     }
@@ -59,7 +58,7 @@ public class ChatPredicates {
             new ChatPattern.ChatComponent("[SUPPORT] ", TextColor.fromFormatting(Formatting.BLUE),0)
     );
     public static Predicate<Text> getSupportPredicate() {
-        return text -> (new ChatPattern(text)).contains(supportChatPattern);
+        return new PatternPredicate(supportChatPattern);
     }
 
     //MOD
@@ -67,7 +66,7 @@ public class ChatPredicates {
             new ChatPattern.ChatComponent("[MOD] ", TextColor.fromFormatting(Formatting.DARK_GREEN),0)
     );
     public static Predicate<Text> getModPredicate() {
-        return text -> (new ChatPattern(text)).contains(modChatPattern);
+        return new PatternPredicate(modChatPattern);
     }
 
     //SESSION
@@ -75,7 +74,7 @@ public class ChatPredicates {
             new ChatPattern.ChatComponent("*",TextColor.fromFormatting(Formatting.GREEN),0)
     );
     public static Predicate<Text> getSessionPredicate() {
-        return text -> (new ChatPattern(text)).contains(sessionChatPattern);
+        return new PatternPredicate(sessionChatPattern);
     }
 
     //ADMIN
@@ -83,6 +82,37 @@ public class ChatPredicates {
             new ChatPattern.ChatComponent("[ADMIN] ", TextColor.fromFormatting(Formatting.RED),0)
     );
     public static Predicate<Text> getAdminPredicate() {
-        return text -> (new ChatPattern(text)).contains(adminChatPattern);
+        return new PatternPredicate(adminChatPattern);
+    }
+
+    /**
+     * Matches messages containing any of the custom words. {@link ChatRuleMatcher} reads the words directly.
+     */
+    static class CustomWordsPredicate implements Predicate<Text> {
+        @Override
+        public boolean test(Text text) {
+            KeywordMatcher words = getCustomWords();
+            return !words.isEmpty() && words.containsAny(MessageAnalysis.of(text).getStripped());
+        }
+    }
+
+    /**
+     * Matches messages containing a chat pattern. {@link ChatRuleMatcher} indexes the pattern instead of testing it.
+     */
+    static class PatternPredicate implements Predicate<Text> {
+        private final ChatPattern pattern;
+
+        PatternPredicate(ChatPattern pattern) {
+            this.pattern = pattern;
+        }
+
+        ChatPattern getPattern() {
+            return pattern;
+        }
+
+        @Override
+        public boolean test(Text text) {
+            return MessageAnalysis.of(text).getPattern().contains(pattern);
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,10 +2,9 @@ package io.github.codeutilities.features.sidedchat;
 
 import com.google.common.collect.Lists;
 import io.github.codeutilities.config.Config;
+import io.github.codeutilities.config.ConfigKey;
 import io.github.codeutilities.config.types.IConfigEnum;
-import net.minecraft.client.gui.hud.ChatHudLine;
 import net.minecraft.sound.SoundEvent;
-import net.minecraft.text.OrderedText;
 import net.minecraft.text.Text;
 
 import java.util.*;
@@ -15,24 +14,26 @@ import java.util.function.Predicate;
  * Class that contains a rule for sorting messages. May test a text component.
  */
 public class ChatRule {
-    public static final List<ChatHudLine<OrderedText>> sideVisibleMessages = Lists.newArrayList();
+    public static final SideChatBuffer sideChat = new SideChatBuffer(SideChatBuffer.HISTORY_LIMIT);
     private static final List<ChatRule> chatRules = Lists.newLinkedList();
 
     private final String name;                   // display name
     private final String internalName;
     private final Predicate<Text> predicate;     // predicate to use
     private final ChatRuleType chatRuleType;
+    private final ConfigKey<ChatSide> sideKey;
+    private final ConfigKey<?> soundKey;
 
     public ChatRuleType getChatRuleType() {
         return chatRuleType;
     }
 
     public ChatSide getChatSide() {
-        return Config.getEnum(getChatRuleConfigSideName(this),ChatSide.class);
+        return sideKey.get();
     }
 
     public SoundEvent getChatSound() {
-        return Config.getSound(getChatRuleConfigSoundName(this));
+        return Config.getSound(soundKey);
     }
 
     public String getName() {
@@ -48,12 +49,18 @@ public class ChatRule {
         this.internalName = name.toLowerCase(Locale.ROOT);
         this.predicate = predicate;
         this.chatRuleType = chatRuleType;
+        this.sideKey = ConfigKey.of(getChatRuleConfigSideName(this), ChatSide.class);
+        this.soundKey = ConfigKey.of(getChatRuleConfigSoundName(this), Object.class);
     }
 
     public boolean matches(Text message) {
         return predicate.test(message);
     }
 
+    Predicate<Text> getPredicate() {
+        return predicate;
+    }
+
     public static Collection<ChatRule> getChatRules() {
         return chatRules;
     }
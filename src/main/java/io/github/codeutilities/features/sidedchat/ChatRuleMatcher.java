@@ -0,0 +1,148 @@
+package io.github.codeutilities.features.sidedchat;
+
+import io.github.codeutilities.config.ConfigKey;
+import io.github.codeutilities.features.sidedchat.ChatPattern.ChatComponent;
+import io.github.codeutilities.features.sidedchat.ChatPredicates.CustomWordsPredicate;
+import io.github.codeutilities.features.sidedchat.ChatPredicates.PatternPredicate;
+import io.github.codeutilities.util.chat.text.MessageAnalysis;
+import net.minecraft.text.Text;
+import net.minecraft.text.TextColor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * All {@link ChatRule}s compiled into one matcher, giving the same result as testing every rule.
+ * The custom words share one {@link KeywordMatcher}, and rules looking for a chat pattern that starts the message
+ * are looked up by the (text, color) of the message's first component, so a message is only walked once.
+ * Other rules are tested as usual.
+ */
+public class ChatRuleMatcher {
+
+    private static final ConfigKey<Boolean> DEBUG = ConfigKey.of("debug", Boolean.class);
+    private static ChatRuleMatcher instance;
+
+    private final ChatRule[] rules;
+    private final long customRules;
+    private final Map<String, Entry[]> firstComponents = new HashMap<>();
+    private final int[] otherRules;
+
+    private long messages = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    public ChatRuleMatcher(List<ChatRule> rules) {
+        if (rules.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Can not match more than " + Long.SIZE + " chat rules");
+        }
+        this.rules = rules.toArray(new ChatRule[0]);
+
+        long customRules = 0;
+        int[] otherRules = new int[this.rules.length];
+        int others = 0;
+        for (int i = 0; i < this.rules.length; i++) {
+            Predicate<Text> predicate = this.rules[i].getPredicate();
+
+            if (predicate instanceof CustomWordsPredicate) {
+                customRules |= 1L << i;
+            } else if (predicate instanceof PatternPredicate pattern && isFirstComponent(pattern.getPattern())) {
+                ChatComponent component = pattern.getPattern().getComponents().get(0);
+                firstComponents.merge(component.getString(), new Entry[]{new Entry(component.getColor(), i)}, (a, b) -> {
+                    Entry[] merged = Arrays.copyOf(a, a.length + b.length);
+                    System.arraycopy(b, 0, merged, a.length, b.length);
+                    return merged;
+                });
+            } else {
+                otherRules[others++] = i;
+            }
+        }
+        this.customRules = customRules;
+        this.otherRules = Arrays.copyOf(otherRules, others);
+    }
+
+    public static ChatRuleMatcher getInstance() {
+        if (instance == null) {
+            instance = new ChatRuleMatcher(new ArrayList<>(ChatRule.getChatRules()));
+        }
+        return instance;
+    }
+
+    private static boolean isFirstComponent(ChatPattern pattern) {
+        List<ChatComponent> components = pattern.getComponents();
+        return components.size() == 1 && components.get(0).getPos() == 0 && components.get(0).getString() != null;
+    }
+
+    /**
+     * @return the rules matching the message, in the order they were registered
+     */
+    public List<ChatRule> match(Text message) {
+        boolean debug = DEBUG.getOrDefault(false);
+        long start = debug ? System.nanoTime() : 0;
+
+        long matches = 0;
+
+        if (customRules != 0) {
+            KeywordMatcher words = ChatPredicates.getCustomWords();
+            if (!words.isEmpty() && words.containsAny(MessageAnalysis.of(message).getStripped())) {
+                matches |= customRules;
+            }
+        }
+
+        if (!firstComponents.isEmpty()) {
+            Text first = ChatPattern.firstComponent(message);
+            Entry[] entries = firstComponents.get(first.getString());
+            if (entries != null) {
+                TextColor color = first.getStyle().getColor();
+                for (Entry entry : entries) {
+                    // A missing color on either side matches any color, like ChatComponent#equals
+                    if (entry.color == null || color == null || entry.color.equals(color)) {
+                        matches |= 1L << entry.rule;
+                    }
+                }
+            }
+        }
+
+        for (int rule : otherRules) {
+            if (rules[rule].matches(message)) {
+                matches |= 1L << rule;
+            }
+        }
+
+        if (debug) {
+            long time = System.nanoTime() - start;
+            messages++;
+            totalNanos += time;
+            maxNanos = Math.max(maxNanos, time);
+        }
+
+        if (matches == 0) {
+            return Collections.emptyList();
+        }
+        List<ChatRule> matched = new ArrayList<>(Long.bitCount(matches));
+        for (int i = 0; i < rules.length; i++) {
+            if ((matches & 1L << i) != 0) {
+                matched.add(rules[i]);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @return a summary of the time spent matching, only recorded while debug mode is on
+     */
+    public String getTimings() {
+        if (messages == 0) {
+            return "Chat rules: no messages matched";
+        }
+        return String.format("Chat rules: %d messages, avg %.1fµs, max %.1fµs",
+                messages, totalNanos / 1000d / messages, maxNanos / 1000d);
+    }
+
+    private record Entry(TextColor color, int rule) {
+    }
+}
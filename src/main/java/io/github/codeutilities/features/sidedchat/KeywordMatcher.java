@@ -0,0 +1,112 @@
+package io.github.codeutilities.features.sidedchat;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+
+/**
+ * Aho–Corasick automaton telling whether a string contains any of a set of words,
+ * with a single pass over the string regardless of how many words there are.
+ */
+public class KeywordMatcher {
+
+    private final Node root = new Node();
+    private final boolean empty;
+
+    public KeywordMatcher(Collection<String> words) {
+        boolean empty = true;
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                root.insert(word);
+                empty = false;
+            }
+        }
+        this.empty = empty;
+        link();
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public boolean containsAny(String text) {
+        if (empty) {
+            return false;
+        }
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Node next = node.child(c);
+            while (next == null && node != root) {
+                node = node.fail;
+                next = node.child(c);
+            }
+            node = next == null ? root : next;
+            if (node.output) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Breadth first, so the fail link of a node's parent is always set before the node's own
+    private void link() {
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (int i = 0; i < node.keys.length; i++) {
+                char c = node.keys[i];
+                Node child = node.children[i];
+
+                Node fail = node.fail;
+                Node target = fail.child(c);
+                while (target == null && fail != root) {
+                    fail = fail.fail;
+                    target = fail.child(c);
+                }
+                child.fail = target == null ? root : target;
+                // A word ending inside this one (e.g. "cat" in "bobcat") also counts as found
+                child.output |= child.fail.output;
+                queue.add(child);
+            }
+        }
+    }
+
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Node fail;
+        private boolean output;
+
+        private void insert(String word) {
+            Node node = this;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                Node next = node.child(c);
+                if (next == null) {
+                    next = new Node();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                    node.keys[node.keys.length - 1] = c;
+                    node.children[node.children.length - 1] = next;
+                }
+                node = next;
+            }
+            node.output = true;
+        }
+
+        private Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
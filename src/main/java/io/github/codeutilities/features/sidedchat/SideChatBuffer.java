@@ -0,0 +1,132 @@
+package io.github.codeutilities.features.sidedchat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.hud.ChatHudLine;
+import net.minecraft.client.util.ChatMessages;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+
+/**
+ * The messages shown in the side chat, kept in a ring buffer holding as many messages as the vanilla chat history.
+ * Messages are stored as received and only broken into lines when they are displayed,
+ * so changing the width of the side chat only re-wraps the messages that are visible.
+ * Lines are counted from the bottom, line 0 being the last line of the newest message.
+ */
+public class SideChatBuffer {
+
+    // ChatHud keeps this many messages in its history
+    public static final int HISTORY_LIMIT = 100;
+
+    private final Entry[] entries;
+    private int head = 0; // oldest message
+    private int size = 0;
+
+    public SideChatBuffer(int capacity) {
+        this.entries = new Entry[capacity];
+    }
+
+    public void add(Text message, int creationTick, int id) {
+        Entry entry = new Entry(message, creationTick, id);
+        if (size == entries.length) {
+            entries[head] = entry;
+            head = (head + 1) % entries.length;
+        } else {
+            entries[(head + size) % entries.length] = entry;
+            size++;
+        }
+    }
+
+    public void remove(int id) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries[(head + i) % entries.length];
+            if (entry.id != id) {
+                entries[(head + kept) % entries.length] = entry;
+                kept++;
+            }
+        }
+        for (int i = kept; i < size; i++) {
+            entries[(head + i) % entries.length] = null;
+        }
+        size = kept;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            entries[(head + i) % entries.length] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the total amount of lines at the given width, this wraps every message
+     */
+    public int getLineCount(TextRenderer renderer, int width) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += newest(i).getLines(renderer, width).size();
+        }
+        return count;
+    }
+
+    /**
+     * @return up to {@code limit} lines starting at line {@code skip}, newest first
+     */
+    public List<ChatHudLine<OrderedText>> getLines(TextRenderer renderer, int width, int skip, int limit) {
+        if (limit <= 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        List<ChatHudLine<OrderedText>> result = new ArrayList<>(limit);
+        for (int i = 0; i < size && result.size() < limit; i++) {
+            List<ChatHudLine<OrderedText>> lines = newest(i).getLines(renderer, width);
+            if (skip >= lines.size()) {
+                skip -= lines.size();
+                continue;
+            }
+            for (int line = lines.size() - 1 - skip; line >= 0 && result.size() < limit; line--) {
+                result.add(lines.get(line));
+            }
+            skip = 0;
+        }
+        return result;
+    }
+
+    private Entry newest(int index) {
+        return entries[(head + size - 1 - index) % entries.length];
+    }
+
+    private static class Entry {
+        private final Text text;
+        private final int creationTick;
+        private final int id;
+        private List<ChatHudLine<OrderedText>> lines;
+        private int wrappedWidth = -1;
+
+        private Entry(Text text, int creationTick, int id) {
+            this.text = text;
+            this.creationTick = creationTick;
+            this.id = id;
+        }
+
+        private List<ChatHudLine<OrderedText>> getLines(TextRenderer renderer, int width) {
+            if (lines == null || wrappedWidth != width) {
+                List<OrderedText> wrapped = ChatMessages.breakRenderedChatMessageLines(text, width, renderer);
+                List<ChatHudLine<OrderedText>> lines = new ArrayList<>(wrapped.size());
+                for (OrderedText line : wrapped) {
+                    lines.add(new ChatHudLine<>(creationTick, line, id));
+                }
+                this.lines = lines;
+                this.wrappedWidth = width;
+            }
+            return lines;
+        }
+    }
+}
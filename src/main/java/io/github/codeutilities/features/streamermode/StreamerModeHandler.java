@@ -2,12 +2,30 @@ package io.github.codeutilities.features.streamermode;
 
 import io.github.codeutilities.CodeUtilities;
 import io.github.codeutilities.config.Config;
+import io.github.codeutilities.config.ConfigKey;
 import io.github.codeutilities.util.chat.MessageGrabber;
 import net.minecraft.network.packet.s2c.play.GameJoinS2CPacket;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.regex.Pattern;
+
 public class StreamerModeHandler {
 
+    private static final ConfigKey<Boolean> ENABLED = ConfigKey.of("streamer", Boolean.class);
+    private static final ConfigKey<Boolean> AUTO_ADMINV = ConfigKey.of("streamerAutoAdminV", Boolean.class);
+    private static final ConfigKey<Boolean> AUTO_CHAT_LOCAL = ConfigKey.of("streamerAutoChatLocal", Boolean.class);
+    private static final ConfigKey<Boolean> SPIES = ConfigKey.of("streamerSpies", Boolean.class);
+    private static final ConfigKey<Boolean> HIDE_SUPPORT = ConfigKey.of("streamerHideSupport", Boolean.class);
+    private static final ConfigKey<Boolean> HIDE_MODERATION = ConfigKey.of("streamerHideModeration", Boolean.class);
+    private static final ConfigKey<Boolean> HIDE_ADMIN = ConfigKey.of("streamerHideAdmin", Boolean.class);
+    private static final ConfigKey<Boolean> HIDE_DMS = ConfigKey.of("streamerHideDMs", Boolean.class);
+    private static final ConfigKey<Boolean> HIDE_PLOT_ADS = ConfigKey.of("streamerHidePlotAds", Boolean.class);
+    private static final ConfigKey<Boolean> HIDE_BUYCRAFT_UPDATE = ConfigKey.of("streamerHideBuycraftUpdate", Boolean.class);
+    private static final ConfigKey<Boolean> HIDE_REGEX_ENABLED = ConfigKey.of("streamerHideRegexEnabled", Boolean.class);
+    private static final ConfigKey<String> HIDE_REGEX = ConfigKey.of("streamerHideRegex", String.class)
+        .onChange(value -> hideRegexPattern = null);
+    private static Pattern hideRegexPattern = null; // compiled on first use after a change
+
     public static boolean get(String key) {
         return Config.getBoolean(key);
     }
@@ -17,55 +35,68 @@ public class StreamerModeHandler {
     }
 
     public static boolean enabled() {
-        return get("streamer");
+        return ENABLED.get();
     }
 
     public static boolean getOption(String key) {
         return enabled() && get(key);
     }
 
+    private static boolean getOption(ConfigKey<Boolean> key) {
+        return enabled() && key.get();
+    }
+
     public static boolean autoAdminV() {
-        return getOption("streamerAutoAdminV");
+        return getOption(AUTO_ADMINV);
     }
 
     public static boolean autoChatLocal() {
-        return getOption("streamerAutoChatLocal");
+        return getOption(AUTO_CHAT_LOCAL);
     }
 
     public static boolean hideSpies() {
-        return getOption("streamerSpies");
+        return getOption(SPIES);
     }
 
     public static boolean hideSupport() {
-        return getOption("streamerHideSupport");
+        return getOption(HIDE_SUPPORT);
     }
 
     public static boolean hideModeration() {
-        return getOption("streamerHideModeration");
+        return getOption(HIDE_MODERATION);
     }
 
     public static boolean hideAdmin() {
-        return getOption("streamerHideAdmin");
+        return getOption(HIDE_ADMIN);
     }
 
     public static boolean hideDMs() {
-        return getOption("streamerHideDMs");
+        return getOption(HIDE_DMS);
     }
 
     public static boolean hidePlotAds() {
-        return getOption("streamerHidePlotAds");
+        return getOption(HIDE_PLOT_ADS);
     }
 
     public static boolean hideBuycraftUpdate() {
-        return getOption("streamerHideBuycraftUpdate");
+        return getOption(HIDE_BUYCRAFT_UPDATE);
     }
 
     public static boolean hideRegexEnabled() {
-        return getOption("streamerHideRegexEnabled");
+        return getOption(HIDE_REGEX_ENABLED);
     }
 
     public static String hideRegex() {
-        return getString("streamerHideRegex");
+        return HIDE_REGEX.get();
+    }
+
+    public static Pattern hideRegexPattern() {
+        Pattern pattern = hideRegexPattern;
+        if (pattern == null) {
+            pattern = Pattern.compile(hideRegex());
+            hideRegexPattern = pattern;
+        }
+        return pattern;
     }
 
     // Looking for #handleMessage? This has been moved to mod.features.social.chat.message
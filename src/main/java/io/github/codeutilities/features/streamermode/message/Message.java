@@ -5,6 +5,7 @@ import io.github.codeutilities.event.RecieveSoundEvent;
 import io.github.codeutilities.event.system.EventManager;
 import io.github.codeutilities.features.streamermode.StreamerModeListeners;
 import io.github.codeutilities.util.chat.MessageGrabber;
+import io.github.codeutilities.util.chat.text.MessageAnalysis;
 import net.minecraft.network.packet.s2c.play.GameMessageS2CPacket;
 import net.minecraft.text.Text;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -13,6 +14,7 @@ public class Message {
 
     private final GameMessageS2CPacket packet;
     private final Text text;
+    private final MessageAnalysis analysis;
     private final CallbackInfo callback;
     private final MessageType type;
 
@@ -22,6 +24,7 @@ public class Message {
     public Message(GameMessageS2CPacket packet, CallbackInfo ci) {
         this.packet = packet;
         this.text = packet.getMessage();
+        this.analysis = MessageAnalysis.of(text);
         this.callback = ci;
         this.type = MessageCheck.run(this);
         MessageFinalizer.run(this);
@@ -51,8 +54,12 @@ public class Message {
         return cancelled;
     }
 
+    public MessageAnalysis getAnalysis() {
+        return analysis;
+    }
+
     public String getStripped() {
-        return text.getString();
+        return analysis.getStripped();
     }
 
     public void setCheck(MessageCheck check) {
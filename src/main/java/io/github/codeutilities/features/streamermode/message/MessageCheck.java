@@ -2,6 +2,8 @@ package io.github.codeutilities.features.streamermode.message;
 
 import io.github.codeutilities.features.streamermode.message.checks.*;
 
+import java.util.regex.Pattern;
+
 /**
  * Before a message is sent to the client, all message checks are evaluated
  */
@@ -37,9 +39,33 @@ public abstract class MessageCheck {
 
     };
 
+    private static final MessageClassifier classifier = new MessageClassifier(checks);
+
     public abstract MessageType getType();
 
-    public abstract boolean check(Message message, String stripped);
+    /**
+     * Checks that only compare a prefix or match a fixed regex should override {@link #getPrefix()} or {@link #getPattern()}
+     * instead, so they can be folded into the {@link MessageClassifier}.
+     */
+    public boolean check(Message message, String stripped) {
+        String prefix = getPrefix();
+        if (prefix != null) {
+            return stripped.startsWith(prefix);
+        }
+        Pattern pattern = getPattern();
+        if (pattern != null) {
+            return pattern.matcher(stripped).matches();
+        }
+        throw new IllegalStateException(getClass().getSimpleName() + " has neither a prefix, pattern nor custom check");
+    }
+
+    protected String getPrefix() {
+        return null;
+    }
+
+    protected Pattern getPattern() {
+        return null;
+    }
 
     /**
      * Use {@link Message#cancel()} to cancel the message
@@ -47,13 +73,20 @@ public abstract class MessageCheck {
     public abstract void onReceive(Message message);
 
     public static MessageType run(Message message) {
-        for (MessageCheck check : checks) {
-            if (check.check(message, message.getStripped())) {
-                check.onReceive(message);
-                message.setCheck(check);
-                return check.getType();
-            }
+        MessageCheck check = classifier.classify(message, message.getStripped());
+        if (check == null) {
+            return MessageType.OTHER;
         }
-        return MessageType.OTHER;
+        check.onReceive(message);
+        message.setCheck(check);
+        return check.getType();
+    }
+
+    static MessageCheck[] getChecks() {
+        return checks;
+    }
+
+    static MessageClassifier getClassifier() {
+        return classifier;
     }
 }
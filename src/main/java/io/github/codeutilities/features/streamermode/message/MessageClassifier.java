@@ -0,0 +1,136 @@
+package io.github.codeutilities.features.streamermode.message;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the first {@link MessageCheck} accepting a message, as if they were tried in order.
+ * All prefix checks are folded into a trie and all regex checks into one alternation,
+ * so a message is classified with a single walk and a single match attempt.
+ * Checks with custom logic are only run when they come before everything that already matched.
+ */
+public class MessageClassifier {
+
+    private static final int NONE = Integer.MAX_VALUE;
+    // Backreferences would point at the wrong group once the patterns are combined
+    private static final Pattern BACKREFERENCE = Pattern.compile("\\\\[1-9]");
+
+    private final MessageCheck[] checks;
+    private final Node root = new Node();
+    private final Pattern combined;
+    private final int[] patternChecks;
+    private final int[] patternGroups;
+    private final int[] customChecks;
+
+    public MessageClassifier(MessageCheck[] checks) {
+        this.checks = checks;
+
+        StringBuilder alternation = new StringBuilder();
+        int[] patternChecks = new int[checks.length];
+        int[] patternGroups = new int[checks.length];
+        int patterns = 0;
+        int group = 1;
+        int[] customChecks = new int[checks.length];
+        int customs = 0;
+
+        for (int i = 0; i < checks.length; i++) {
+            MessageCheck check = checks[i];
+            String prefix = check.getPrefix();
+            Pattern pattern = check.getPattern();
+
+            if (prefix != null) {
+                root.insert(prefix, i);
+            } else if (pattern != null && pattern.flags() == 0 && !BACKREFERENCE.matcher(pattern.pattern()).find()) {
+                alternation.append(patterns == 0 ? "" : "|").append('(').append(pattern.pattern()).append(')');
+                patternChecks[patterns] = i;
+                patternGroups[patterns] = group;
+                patterns++;
+                group += 1 + pattern.matcher("").groupCount();
+            } else {
+                customChecks[customs++] = i;
+            }
+        }
+
+        this.combined = patterns == 0 ? null : Pattern.compile("(?:" + alternation + ")");
+        this.patternChecks = Arrays.copyOf(patternChecks, patterns);
+        this.patternGroups = Arrays.copyOf(patternGroups, patterns);
+        this.customChecks = Arrays.copyOf(customChecks, customs);
+    }
+
+    /**
+     * @return the first check accepting the message, or null if there is none
+     */
+    public MessageCheck classify(Message message, String stripped) {
+        int best = root.match;
+        Node node = root;
+        for (int i = 0; i < stripped.length() && node.min < best; i++) {
+            node = node.child(stripped.charAt(i));
+            if (node == null) {
+                break;
+            }
+            best = Math.min(best, node.match);
+        }
+
+        if (combined != null && patternChecks[0] < best) {
+            Matcher matcher = combined.matcher(stripped);
+            if (matcher.matches()) {
+                // Alternatives are tried in order, so the first group that took part is the earliest check
+                for (int i = 0; i < patternChecks.length && patternChecks[i] < best; i++) {
+                    if (matcher.start(patternGroups[i]) != -1) {
+                        best = patternChecks[i];
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (int index : customChecks) {
+            if (index >= best) {
+                break;
+            }
+            if (checks[index].check(message, stripped)) {
+                best = index;
+                break;
+            }
+        }
+
+        return best == NONE ? null : checks[best];
+    }
+
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        // Earliest check whose prefix ends here, and the earliest one anywhere below
+        private int match = NONE;
+        private int min = NONE;
+
+        private void insert(String prefix, int index) {
+            Node node = this;
+            node.min = Math.min(node.min, index);
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = prefix.charAt(i);
+                Node next = node.child(c);
+                if (next == null) {
+                    next = new Node();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                    node.keys[node.keys.length - 1] = c;
+                    node.children[node.children.length - 1] = next;
+                }
+                node = next;
+                node.min = Math.min(node.min, index);
+            }
+            node.match = Math.min(node.match, index);
+        }
+
+        private Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -14,8 +14,8 @@ public class AdminCheck extends MessageCheck implements StreamerModeMessageCheck
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.startsWith("[ADMIN]");
+    protected String getPrefix() {
+        return "[ADMIN]";
     }
 
     @Override
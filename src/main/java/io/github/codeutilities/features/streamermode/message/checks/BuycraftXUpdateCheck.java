@@ -6,9 +6,11 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageCheck;
 import io.github.codeutilities.features.streamermode.message.MessageType;
 
+import java.util.regex.Pattern;
+
 public class BuycraftXUpdateCheck extends MessageCheck implements StreamerModeMessageCheck {
 
-    private static final String BUYCRAFT_UPDATE_REGEX = "^A new version of BuycraftX \\([0-9.]+\\) is available\\. Go to your server panel at https://server.tebex.io/plugins to download the update\\.$";
+    private static final Pattern BUYCRAFT_UPDATE_PATTERN = Pattern.compile("^A new version of BuycraftX \\([0-9.]+\\) is available\\. Go to your server panel at https://server.tebex.io/plugins to download the update\\.$");
 
     @Override
     public MessageType getType() {
@@ -16,8 +18,8 @@ public class BuycraftXUpdateCheck extends MessageCheck implements StreamerModeMe
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.matches(BUYCRAFT_UPDATE_REGEX);
+    protected Pattern getPattern() {
+        return BUYCRAFT_UPDATE_PATTERN;
     }
 
     @Override
@@ -6,9 +6,11 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageCheck;
 import io.github.codeutilities.features.streamermode.message.MessageType;
 
+import java.util.regex.Pattern;
+
 public class DirectMessageCheck extends MessageCheck implements StreamerModeMessageCheck {
 
-    private static final String DIRECT_MESSAGE_REGEX = "^\\[(\\w{3,16}) → You] .+$";
+    private static final Pattern DIRECT_MESSAGE_PATTERN = Pattern.compile("^\\[(\\w{3,16}) → You] .+$");
 
     @Override
     public MessageType getType() {
@@ -16,8 +18,8 @@ public class DirectMessageCheck extends MessageCheck implements StreamerModeMess
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.matches(DIRECT_MESSAGE_REGEX);
+    protected Pattern getPattern() {
+        return DIRECT_MESSAGE_PATTERN;
     }
 
     @Override
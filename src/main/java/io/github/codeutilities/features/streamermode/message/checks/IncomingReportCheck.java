@@ -16,8 +16,8 @@ public class IncomingReportCheck extends MessageCheck implements StreamerModeMes
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.startsWith("! Incoming Report ");
+    protected String getPrefix() {
+        return "! Incoming Report ";
     }
 
     @Override
@@ -6,9 +6,11 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageCheck;
 import io.github.codeutilities.features.streamermode.message.MessageType;
 
+import java.util.regex.Pattern;
+
 public class JoinFailCheck extends MessageCheck implements StreamerModeMessageCheck {
 
-    private static final String JOIN_FAIL_REGEX = "^([^ ]{3,}) tried to join, but is banned \\(.*\\)!$";
+    private static final Pattern JOIN_FAIL_PATTERN = Pattern.compile("^([^ ]{3,}) tried to join, but is banned \\(.*\\)!$");
 
     @Override
     public MessageType getType() {
@@ -16,8 +18,8 @@ public class JoinFailCheck extends MessageCheck implements StreamerModeMessageCh
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.matches(JOIN_FAIL_REGEX);
+    protected Pattern getPattern() {
+        return JOIN_FAIL_PATTERN;
     }
 
     @Override
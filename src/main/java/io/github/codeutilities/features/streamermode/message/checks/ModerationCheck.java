@@ -14,9 +14,9 @@ public class ModerationCheck extends MessageCheck implements StreamerModeMessage
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
+    protected String getPrefix() {
         // General moderation messages (Broadcast, AntiX, etc.)
-        return stripped.startsWith("[MOD] ");
+        return "[MOD] ";
     }
 
     @Override
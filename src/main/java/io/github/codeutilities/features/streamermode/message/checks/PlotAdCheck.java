@@ -6,9 +6,11 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageCheck;
 import io.github.codeutilities.features.streamermode.message.MessageType;
 
+import java.util.regex.Pattern;
+
 public class PlotAdCheck extends MessageCheck implements StreamerModeMessageCheck {
 
-    private static final String PLOT_AD_REGEX = "^.*\\[ Plot Ad ].*\\n.+\\n.*$";
+    private static final Pattern PLOT_AD_PATTERN = Pattern.compile("^.*\\[ Plot Ad ].*\\n.+\\n.*$");
 
     @Override
     public MessageType getType() {
@@ -16,8 +18,8 @@ public class PlotAdCheck extends MessageCheck implements StreamerModeMessageChec
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.matches(PLOT_AD_REGEX);
+    protected Pattern getPattern() {
+        return PLOT_AD_PATTERN;
     }
 
     @Override
@@ -6,9 +6,11 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageCheck;
 import io.github.codeutilities.features.streamermode.message.MessageType;
 
+import java.util.regex.Pattern;
+
 public class ScanningCheck extends MessageCheck implements StreamerModeMessageCheck {
 
-    private static final String SCANNING_REGEX = "^Scanning \\w+(.|\n)*\\[Online] \\[Offline] \\[(IP|)Banned]\1*$";
+    private static final Pattern SCANNING_PATTERN = Pattern.compile("^Scanning \\w+(.|\n)*\\[Online] \\[Offline] \\[(IP|)Banned]\1*$");
 
     @Override
     public MessageType getType() {
@@ -16,8 +18,8 @@ public class ScanningCheck extends MessageCheck implements StreamerModeMessageCh
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.matches(SCANNING_REGEX);
+    protected Pattern getPattern() {
+        return SCANNING_PATTERN;
     }
 
     @Override
@@ -14,8 +14,8 @@ public class SilentPunishmentCheck extends MessageCheck implements StreamerModeM
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.startsWith("[Silent]");
+    protected String getPrefix() {
+        return "[Silent]";
     }
 
     @Override
@@ -14,9 +14,9 @@ public class SpiesCheck extends MessageCheck implements StreamerModeMessageCheck
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
+    protected String getPrefix() {
         // Hide spies (Session spy, Muted spy, DM spy)
-        return stripped.startsWith("*");
+        return "*";
     }
 
     @Override
@@ -16,7 +16,7 @@ public class StreamerModeRegexCheck extends MessageCheck implements StreamerMode
 
     @Override
     public boolean check(Message message, String stripped) {
-        return stripped.matches(StreamerModeHandler.hideRegex());
+        return StreamerModeHandler.hideRegexPattern().matcher(stripped).matches();
     }
 
     @Override
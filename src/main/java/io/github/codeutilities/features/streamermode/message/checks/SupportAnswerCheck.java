@@ -6,9 +6,11 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageCheck;
 import io.github.codeutilities.features.streamermode.message.MessageType;
 
+import java.util.regex.Pattern;
+
 public class SupportAnswerCheck extends MessageCheck implements StreamerModeMessageCheck {
 
-    private static final String SUPPORT_ANSWER_REGEX = "^.*\\n» \\w+ has answered \\w+'s question:\\n\\n.+\\n.*$";
+    private static final Pattern SUPPORT_ANSWER_PATTERN = Pattern.compile("^.*\\n» \\w+ has answered \\w+'s question:\\n\\n.+\\n.*$");
 
     @Override
     public MessageType getType() {
@@ -16,8 +18,8 @@ public class SupportAnswerCheck extends MessageCheck implements StreamerModeMess
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.matches(SUPPORT_ANSWER_REGEX);
+    protected Pattern getPattern() {
+        return SUPPORT_ANSWER_PATTERN;
     }
 
     @Override
@@ -14,9 +14,9 @@ public class SupportCheck extends MessageCheck implements StreamerModeMessageChe
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
+    protected String getPrefix() {
         // General support messages (Broadcast, session requests and completion, etc.)
-        return stripped.startsWith("[SUPPORT]");
+        return "[SUPPORT]";
     }
 
     @Override
@@ -6,9 +6,11 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageCheck;
 import io.github.codeutilities.features.streamermode.message.MessageType;
 
+import java.util.regex.Pattern;
+
 public class SupportQuestionCheck extends MessageCheck implements StreamerModeMessageCheck {
 
-    private static final String SUPPORT_QUESTION_REGEX = "^.*» Support Question: \\(Click to answer\\)\\nAsked by \\w+ \\[[a-zA-Z]+]\\n.+$";
+    private static final Pattern SUPPORT_QUESTION_PATTERN = Pattern.compile("^.*» Support Question: \\(Click to answer\\)\\nAsked by \\w+ \\[[a-zA-Z]+]\\n.+$");
 
     @Override
     public MessageType getType() {
@@ -16,8 +18,8 @@ public class SupportQuestionCheck extends MessageCheck implements StreamerModeMe
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.matches(SUPPORT_QUESTION_REGEX);
+    protected Pattern getPattern() {
+        return SUPPORT_QUESTION_PATTERN;
     }
 
     @Override
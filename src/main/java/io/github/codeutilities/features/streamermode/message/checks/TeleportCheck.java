@@ -6,9 +6,11 @@ import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageCheck;
 import io.github.codeutilities.features.streamermode.message.MessageType;
 
+import java.util.regex.Pattern;
+
 public class TeleportCheck extends MessageCheck implements StreamerModeMessageCheck {
 
-    private static final String TELEPORTING_REGEX = "^\\[([^ ]{3,}): Teleported ([^ ]{3,}) to ([^ ]{3,})]$";
+    private static final Pattern TELEPORTING_PATTERN = Pattern.compile("^\\[([^ ]{3,}): Teleported ([^ ]{3,}) to ([^ ]{3,})]$");
 
     @Override
     public MessageType getType() {
@@ -16,8 +18,8 @@ public class TeleportCheck extends MessageCheck implements StreamerModeMessageCh
     }
 
     @Override
-    public boolean check(Message message, String stripped) {
-        return stripped.matches(TELEPORTING_REGEX);
+    protected Pattern getPattern() {
+        return TELEPORTING_PATTERN;
     }
 
     @Override
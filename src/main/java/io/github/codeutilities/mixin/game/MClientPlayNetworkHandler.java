@@ -8,6 +8,7 @@ import io.github.codeutilities.event.system.EventManager;
 import io.github.codeutilities.features.LagslayerHUD;
 import io.github.codeutilities.features.streamermode.message.Message;
 import io.github.codeutilities.features.streamermode.message.MessageFinalizer;
+import io.github.codeutilities.util.chat.text.MessageAnalysis;
 import io.github.codeutilities.util.hypercube.rank.HypercubeRank;
 import io.github.codeutilities.util.hypercube.rank.HypercubeUtil;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
@@ -32,25 +33,27 @@ public class MClientPlayNetworkHandler {
         }
 
         if (packet.getType() == MessageType.CHAT || packet.getType() == MessageType.SYSTEM) {
-            MessageFinalizer.run(new Message(packet, ci));
+            Message message = new Message(packet, ci);
+            MessageFinalizer.run(message);
 
-            ReceiveChatEvent event = new ReceiveChatEvent(packet.getMessage());
+            MessageAnalysis analysis = message.getAnalysis();
+            ReceiveChatEvent event = new ReceiveChatEvent(analysis);
             EventManager.getInstance().dispatch(event);
             if (event.isCancelled()) {
                 ci.cancel();
             }
 
-            if (packet.getMessage().getString().equals("» You are now in dev mode.")) {
+            if (analysis.getStripped().equals("» You are now in dev mode.")) {
                 DevModeEvent modeEvent = new DevModeEvent();
                 EventManager.getInstance().dispatch(modeEvent);
             }
 
-            if (packet.getMessage().getString().equals("» You are now in build mode.")) {
+            if (analysis.getStripped().equals("» You are now in build mode.")) {
                 BuildModeEvent modeEvent = new BuildModeEvent();
                 EventManager.getInstance().dispatch(modeEvent);
             }
 
-            if (packet.getMessage().getString().startsWith("» Joined plot")) {
+            if (analysis.getStripped().startsWith("» Joined plot")) {
                 PlayModeEvent modeEvent = new PlayModeEvent();
                 EventManager.getInstance().dispatch(modeEvent);
             }
@@ -10,14 +10,17 @@ import java.util.Deque;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import io.github.codeutilities.config.Config;
+import io.github.codeutilities.config.ConfigKey;
+import io.github.codeutilities.features.sidedchat.ChatPanel;
 import io.github.codeutilities.features.sidedchat.ChatRule;
+import io.github.codeutilities.features.sidedchat.ChatRuleMatcher;
 import io.github.codeutilities.util.SoundUtil;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.hud.ChatHud;
 import net.minecraft.client.gui.hud.ChatHudLine;
 import net.minecraft.client.util.ChatMessages;
 import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.sound.SoundEvent;
 import net.minecraft.text.OrderedText;
 import net.minecraft.text.Style;
 import net.minecraft.text.Text;
@@ -35,6 +38,9 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 @Mixin(ChatHud.class)
 public abstract class MChatHud {
 
+    private static final ConfigKey<Boolean> DEBUG = ConfigKey.of("debug", Boolean.class);
+    private static final ConfigKey<Integer> SIDECHAT_WIDTH = ConfigKey.of("sidechat_width", Integer.class);
+
     @Shadow
     @Final
     private MinecraftClient client;
@@ -48,8 +54,10 @@ public abstract class MChatHud {
     private Deque<Text> messageQueue;
     @Shadow
     private boolean hasUnreadNewMessages;
-    private int oldSideChatWidth = -1;
     private int sideScrolledLines;
+    private int chatVersion = 0;
+    private final ChatPanel mainPanel = new ChatPanel();
+    private final ChatPanel sidePanel = new ChatPanel();
 
     @Shadow
     public static int getWidth(double widthOption) {
@@ -79,46 +87,63 @@ public abstract class MChatHud {
     @Shadow
     public abstract int getWidth();
 
-    @Shadow
-    public abstract void reset();
-
     @Inject(method = "render", at = @At("HEAD"), cancellable = true)
     private void render(MatrixStack matrices, int tickDelta, CallbackInfo ci) {
         this.processMessageQueue();
-        int renderedLines = renderChat(matrices, tickDelta, visibleMessages, 0, getWidth(),
-                scrolledLines);
-        renderChat(matrices, tickDelta, ChatRule.sideVisibleMessages, getSideChatStartX(),
-                getSideChatWidth(), sideScrolledLines);
+        int visibleLineCount = this.getVisibleLineCount();
+        int mainStart = Math.min(scrolledLines, visibleMessages.size());
+        int mainEnd = Math.min(scrolledLines + visibleLineCount, visibleMessages.size());
+        List<ChatHudLine<OrderedText>> mainLines = visibleMessages.subList(mainStart, mainEnd);
+        // the side chat only wraps the messages it is about to show
+        List<ChatHudLine<OrderedText>> sideLines = ChatRule.sideChat.getLines(this.client.textRenderer,
+                getSideChatWrapWidth(), sideScrolledLines, visibleLineCount);
+
+        // in debug mode, take turns with drawing every line directly to compare frame times
+        boolean debug = DEBUG.getOrDefault(false);
+        boolean cached = !debug || ChatPanel.getTimings().nextIsCached();
+        long start = debug ? System.nanoTime() : 0;
+        int renderedLines;
+        if (cached) {
+            renderedLines = renderPanel(mainPanel, matrices, tickDelta, mainLines, 0, getWidth(), scrolledLines);
+            renderPanel(sidePanel, matrices, tickDelta, sideLines, getSideChatStartX(), getSideChatWidth(),
+                    sideScrolledLines);
+        } else {
+            renderedLines = renderChat(matrices, tickDelta, mainLines, 0, getWidth());
+            renderChat(matrices, tickDelta, sideLines, getSideChatStartX(), getSideChatWidth());
+        }
+        if (debug) {
+            ChatPanel.getTimings().record(cached, System.nanoTime() - start);
+        }
         renderOthers(matrices, renderedLines);
         ci.cancel();
     }
 
+    private int renderPanel(ChatPanel panel, MatrixStack matrices, int tickDelta,
+                            List<ChatHudLine<OrderedText>> lines, int displayX, int width, int scrolledLines) {
+        ChatPanel.Key key = new ChatPanel.Key(chatVersion, scrolledLines, displayX, width, this.isChatFocused(),
+                this.getChatScale(), this.client.options.chatOpacity, this.client.options.textBackgroundOpacity,
+                this.client.options.chatLineSpacing);
+        int renderedLines = panel.update(key, lines, tickDelta);
+        panel.draw(matrices, this.client.textRenderer);
+        return renderedLines;
+    }
+
     /**
      * Renders a chat box, drawn into its own function so I don't repeat code for side chat Most
      * params are just stuff the code needs and I don't have the confidence to change
      *
-     * @param displayX      X to display at
-     * @param width         Width of the chat to display
-     * @param scrolledLines The amount of lines scrolled on this chat
+     * @param lines    The lines to display, starting at the bottom
+     * @param displayX X to display at
+     * @param width    Width of the chat to display
      * @return The amount of lines actually rendered. Other parts of rendering need to know this
      */
     @SuppressWarnings("deprecation")
     private int renderChat(MatrixStack matrices, int tickDelta,
-                           List<ChatHudLine<OrderedText>> visibleMessages, int displayX, int width,
-                           int scrolledLines) {
-        // reset chat (re-allign all text) whenever calculated size for side chat changes
-        int newSideChatWidth = getSideChatWidth();
-        if (newSideChatWidth != oldSideChatWidth) {
-            oldSideChatWidth = newSideChatWidth;
-            reset();
-        }
-
+                           List<ChatHudLine<OrderedText>> lines, int displayX, int width) {
         // will apologise - most code is taken from deobfuscated minecraft jar
         // have attempted to make it as readable as possible but some lines idk man no clue
-        int visibleLineCount = this.getVisibleLineCount();
-        int visibleMessagesSize = visibleMessages.size();
         int renderedLines = 0;
-        if (visibleMessagesSize > 0) {
+        if (!lines.isEmpty()) {
             boolean chatFocused = this.isChatFocused();
 
             double d = this.getChatScale();
@@ -132,9 +157,8 @@ public abstract class MChatHud {
             double lineSpacing2 = -8.0D * (this.client.options.chatLineSpacing + 1.0D)
                     + 4.0D * this.client.options.chatLineSpacing;
 
-            for (int i = 0; i + scrolledLines < visibleMessages.size() && i < visibleLineCount;
-                 ++i) {
-                ChatHudLine<OrderedText> chatHudLine = visibleMessages.get(i + scrolledLines);
+            for (int i = 0; i < lines.size(); ++i) {
+                ChatHudLine<OrderedText> chatHudLine = lines.get(i);
                 if (chatHudLine != null) {
                     int ticksSinceCreation = tickDelta - chatHudLine.getCreationTick();
                     if (ticksSinceCreation < 200 || chatFocused) {
@@ -158,7 +182,8 @@ public abstract class MChatHud {
                     }
                 }
             }
-            // in case you're wondering, the splitting of the text by width is done as its received, not upon rendering
+            // in case you're wondering, the main chat splits the text by width as its received,
+            // the side chat splits it when it is first rendered at a width
             matrices.pop();
         }
         return renderedLines;
@@ -219,7 +244,7 @@ public abstract class MChatHud {
     }
 
     private int getSideChatWidth() {
-        int configWidth = Config.getInteger("sidechat_width");
+        int configWidth = SIDECHAT_WIDTH.get();
 
         // if the width in config is valid
         if (configWidth > 0) {
@@ -234,6 +259,10 @@ public abstract class MChatHud {
         }
     }
 
+    private int getSideChatWrapWidth() {
+        return MathHelper.floor((double) this.getSideChatWidth() / this.getSideChatScale());
+    }
+
     // just incase i want to re-add the option to change side chat scale
     private double getSideChatScale() {
         return getChatScale();
@@ -241,27 +270,29 @@ public abstract class MChatHud {
 
     @Inject(method = "clear", at = @At("TAIL"))
     private void clear(boolean clearHistory, CallbackInfo ci) {
-        ChatRule.sideVisibleMessages.clear();
+        chatVersion++;
+        ChatRule.sideChat.clear();
     }
 
 
     @Inject(method = "addMessage(Lnet/minecraft/text/Text;IIZ)V", at = @At("TAIL"), cancellable = true)
     private void addMessage(Text message, int messageId, int timestamp, boolean refresh,
                             CallbackInfo ci) {
+        chatVersion++;
         boolean matchedARule = false;
-        for (ChatRule chatRule : ChatRule.getChatRules()) {
-            // compare against all rules
-            if (chatRule.matches(message)) {
-                // also don't add to chat if the chat side is either
-                if (!matchedARule) {
-                    addToChat(chatRule.getChatSide(), message, messageId, timestamp);
-                    matchedARule = true;
-                }
+        for (ChatRule chatRule : ChatRuleMatcher.getInstance().match(message)) {
+            // also don't add to chat if the chat side is either
+            if (!matchedARule) {
+                addToChat(chatRule.getChatSide(), message, messageId, timestamp);
+                matchedARule = true;
+            }
 
-                // dont play sound if message is just being refreshed (ie, when window changes size)
-                // & dont try to play a null sound (when the sound is set to 'None')
-                if (!refresh && chatRule.getChatSound() != null) {
-                    SoundUtil.playSound(chatRule.getChatSound());
+            // dont play sound if message is just being refreshed (ie, when window changes size)
+            // & dont try to play a null sound (when the sound is set to 'None')
+            if (!refresh) {
+                SoundEvent sound = chatRule.getChatSound();
+                if (sound != null) {
+                    SoundUtil.playSound(sound);
                 }
             }
         }
@@ -279,46 +310,31 @@ public abstract class MChatHud {
 
     public void addToChat(ChatRule.ChatSide side, Text message, int chatLineId,
                            int updateCounter) {
-        int i;
-        switch (side) {
-            case MAIN:
-            default:
-                i = MathHelper.floor((double) this.getWidth() / this.getChatScale());
-                break;
-            case SIDE:
-                i = MathHelper.floor((double) this.getSideChatWidth() / this.getSideChatScale());
-                break;
+        if (side == ChatRule.ChatSide.SIDE) {
+            ChatRule.sideChat.add(message, updateCounter, chatLineId);
+            return;
         }
 
+        int i = MathHelper.floor((double) this.getWidth() / this.getChatScale());
         List<ChatHudLine<OrderedText>> outputChatLines =
                 ChatMessages.breakRenderedChatMessageLines(message, i, this.client.textRenderer)
                         .stream()
                         .map(iTextComponent -> new ChatHudLine<>(updateCounter, iTextComponent, chatLineId))
                         .collect(Collectors.toList());
         Collections.reverse(outputChatLines);
-        this.getChatLines(side).addAll(0, outputChatLines);
-    }
-
-    private List<ChatHudLine<OrderedText>> getChatLines(ChatRule.ChatSide chatSide) {
-        switch (chatSide) {
-            case MAIN:
-            default:
-                return visibleMessages;
-            case SIDE:
-                return ChatRule.sideVisibleMessages;
-        }
+        visibleMessages.addAll(0, outputChatLines);
     }
 
     @Inject(method = "removeMessage", at = @At("TAIL"))
     private void removeMessage(int messageId, CallbackInfo ci) {
-        ChatRule.sideVisibleMessages.removeIf((message) ->
-                message.getId() == messageId
-        );
+        chatVersion++;
+        ChatRule.sideChat.remove(messageId);
     }
 
     @Inject(method = "reset", at = @At("HEAD"))
     private void reset(CallbackInfo ci) {
-        ChatRule.sideVisibleMessages.clear();
+        chatVersion++;
+        ChatRule.sideChat.clear();
     }
 
     // another copy from minecraft decompiled code
@@ -334,14 +350,15 @@ public abstract class MChatHud {
             adjustedY = MathHelper.floor(
                     adjustedY / (scale * (this.client.options.chatLineSpacing + 1.0D)));
             if (!(adjustedX < 0.0D) && !(adjustedY < 0.0D)) {
-                int size = Math.min(this.getVisibleLineCount(), ChatRule.sideVisibleMessages.size());
-                if (adjustedX <= (double) MathHelper.floor(
-                        (double) this.getSideChatWidth() / scale)) {
+                int wrapWidth = getSideChatWrapWidth();
+                List<ChatHudLine<OrderedText>> lines = ChatRule.sideChat.getLines(
+                        this.client.textRenderer, wrapWidth, sideScrolledLines, this.getVisibleLineCount());
+                int size = lines.size();
+                if (adjustedX <= (double) wrapWidth) {
                     if (adjustedY < (double) (9 * size + size)) {
-                        int line = (int) (adjustedY / 9.0D + (double) sideScrolledLines);
-                        if (line >= 0 && line < ChatRule.sideVisibleMessages.size()) {
-                            ChatHudLine<OrderedText> chatHudLine = ChatRule.sideVisibleMessages.get(
-                                    line);
+                        int line = (int) (adjustedY / 9.0D);
+                        if (line >= 0 && line < size) {
+                            ChatHudLine<OrderedText> chatHudLine = lines.get(line);
                             cir.setReturnValue(this.client.textRenderer.getTextHandler()
                                     .getStyleAt(chatHudLine.getText(), (int) adjustedX));
                         }
@@ -359,7 +376,7 @@ public abstract class MChatHud {
     @Inject(method = "scroll", at = @At("TAIL"))
     private void scroll(int amount, CallbackInfo ci) {
         sideScrolledLines = (int) ((double) this.scrolledLines + amount);
-        int i = ChatRule.sideVisibleMessages.size();
+        int i = ChatRule.sideChat.getLineCount(this.client.textRenderer, getSideChatWrapWidth());
         if (sideScrolledLines > i - this.getVisibleLineCount()) {
             sideScrolledLines = i - this.getVisibleLineCount();
         }
@@ -0,0 +1,25 @@
+package io.github.codeutilities.mixin.render;
+
+import io.github.codeutilities.config.Config;
+import io.github.codeutilities.features.sidedchat.ChatPanel;
+import io.github.codeutilities.features.sidedchat.ChatRuleMatcher;
+import java.util.List;
+import net.minecraft.client.gui.hud.DebugHud;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(DebugHud.class)
+public class MDebugHud {
+
+    @Inject(method = "getLeftText", at = @At("RETURN"))
+    private void getLeftText(CallbackInfoReturnable<List<String>> cir) {
+        if (Config.getBoolean("debug")) {
+            List<String> lines = cir.getReturnValue();
+            lines.add("");
+            lines.add("[CodeUtilities] " + ChatRuleMatcher.getInstance().getTimings());
+            lines.add("[CodeUtilities] " + ChatPanel.getTimings());
+        }
+    }
+}
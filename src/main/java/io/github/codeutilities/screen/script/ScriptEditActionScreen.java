@@ -32,6 +32,7 @@ public class ScriptEditActionScreen extends CScreen {
     public ScriptEditActionScreen(ScriptAction action, Script script) {
         super(90, 100);
         this.script = script;
+        action.invalidateBinding();
 
         int y = 5;
         int index = 0;
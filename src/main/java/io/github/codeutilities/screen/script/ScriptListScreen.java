@@ -8,6 +8,7 @@ import io.github.codeutilities.screen.widget.CText;
 import io.github.codeutilities.screen.widget.CWidget;
 import io.github.codeutilities.script.Script;
 import io.github.codeutilities.script.ScriptManager;
+import io.github.codeutilities.script.execution.ScriptProfile;
 import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,6 +37,14 @@ public class ScriptListScreen extends CScreen {
             }
             panel.add(new CText(6, y + 2, text));
 
+            ScriptProfile profile = s.getProfile();
+            if (profile.getRuns() > 0) {
+                int color = profile.getSuspensions() + profile.getAborts() + profile.getDropped() > 0 ? 0xAA3333 : 0x888888;
+                LiteralText time = new LiteralText(ScriptProfile.format(profile.getTotalNanos()));
+                int width = CodeUtilities.MC.textRenderer.getWidth(time) / 2;
+                panel.add(new CText(84 - width, y + 2, time, color, 1, false, false));
+            }
+
             panel.add(new CButton(3, y-1, 82, 10, "",() -> {}) {
                 @Override
                 public void render(MatrixStack stack, int mouseX, int mouseY, float tickDelta) {
@@ -8,13 +8,21 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import io.github.codeutilities.event.HudRenderEvent;
+import io.github.codeutilities.event.TickEvent;
+import io.github.codeutilities.event.system.CancellableEvent;
 import io.github.codeutilities.event.system.Event;
 import io.github.codeutilities.script.action.ScriptAction;
 import io.github.codeutilities.script.action.ScriptActionType;
+import io.github.codeutilities.script.argument.ScriptArgument;
+import io.github.codeutilities.script.argument.ScriptVariableArgument;
 import io.github.codeutilities.script.event.ScriptEvent;
 import io.github.codeutilities.script.execution.ScriptContext;
 import io.github.codeutilities.script.execution.ScriptPosStack;
+import io.github.codeutilities.script.execution.ScriptProfile;
+import io.github.codeutilities.script.execution.ScriptProgram;
 import io.github.codeutilities.script.execution.ScriptTask;
+import io.github.codeutilities.util.Scheduler;
 import io.github.codeutilities.util.chat.ChatType;
 import io.github.codeutilities.util.chat.ChatUtil;
 import java.io.File;
@@ -27,12 +35,22 @@ import org.apache.logging.log4j.Logger;
 
 public class Script {
 
+    private static final int ABORT_WARNING_TICKS = 100;
+    private static final int MAX_SUSPENDED_TASKS = 64;
+
     private final String name;
     private final List<ScriptPart> parts;
     private final Logger LOGGER;
     private final ScriptContext context = new ScriptContext();
+    private final ScriptProfile profile = new ScriptProfile();
     private File file;
     private boolean disabled;
+    private ScriptProgram program;
+    private int pendingIO;
+    // Tasks stopped by the budget, all resumed together next tick
+    private final List<ScriptTask> suspendedTasks = new ArrayList<>();
+    private Scheduler.ScheduledTask resumeTask;
+    private long lastAbortWarning = -ABORT_WARNING_TICKS;
 
     public Script(String name, List<ScriptPart> parts, boolean disabled) {
         this.name = name;
@@ -50,20 +68,34 @@ public class Script {
     }
 
     public void invoke(Event event) {
-        int pos = 0;
-        for (ScriptPart part : parts) {
-            if (part instanceof ScriptEvent se) {
-                if (se.getType().getCodeutilitiesEvent().equals(event.getClass())) {
-                    try {
-                        this.execute(new ScriptTask(new ScriptPosStack(pos+1), event,this));
-                    } catch (Exception err) {
-                        ChatUtil.sendMessage("Error while invoking event " + se.getType().getName() + " in script " + name + ": " + err.getMessage(), ChatType.FAIL);
-                        LOGGER.error("Error while invoking event " + se.getType().getName(), err);
-                        err.printStackTrace();
-                    }
-                }
+        ScriptProgram program = getProgram();
+        for (int pos : program.getEntryPoints()) {
+            ScriptEvent se = (ScriptEvent) program.get(pos);
+            if (se.getType().getCodeutilitiesEvent().equals(event.getClass())) {
+                invoke(event, program, pos);
+            }
+        }
+    }
+
+    public void invoke(Event event, ScriptProgram program, int pos) {
+        ScriptEvent se = (ScriptEvent) program.get(pos);
+        if (!suspendedTasks.isEmpty()) {
+            // The script is throttled until its suspended tasks caught up, other events wait behind them
+            if (isRepeating(event) || suspendedTasks.size() >= MAX_SUSPENDED_TASKS) {
+                profile.dropped();
+            } else {
+                profile.invoked();
+                suspendedTasks.add(new ScriptTask(new ScriptPosStack(pos+1), event, this, program));
             }
-            pos++;
+            return;
+        }
+        profile.invoked();
+        try {
+            this.execute(new ScriptTask(new ScriptPosStack(pos+1), event, this, program));
+        } catch (Exception err) {
+            ChatUtil.sendMessage("Error while invoking event " + se.getType().getName() + " in script " + name + ": " + err.getMessage(), ChatType.FAIL);
+            LOGGER.error("Error while invoking event " + se.getType().getName(), err);
+            err.printStackTrace();
         }
     }
 
@@ -71,62 +103,131 @@ public class Script {
         if (disabled) {
             return;
         }
-        while (task.stack().peek() < parts.size()) {
-            ScriptPart part = parts.get(task.stack().peek());
+        long start = System.nanoTime();
+        try {
+            run(task);
+        } finally {
+            profile.run(System.nanoTime() - start);
+        }
+    }
+
+    private void run(ScriptTask task) {
+        ScriptProgram program = task.program();
+        ScriptPosStack stack = task.stack();
+        profile.beginRun();
+        while (stack.peek() < program.size()) {
+            if (profile.overBudget()) {
+                task.stop();
+                if (mustFinishNow(task.event())) {
+                    abort(task);
+                } else {
+                    suspend(task);
+                }
+                return;
+            }
+            int pos = stack.peek();
+            ScriptPart part = program.get(pos);
             if (part instanceof ScriptEvent) {
                 return;
             } else if (part instanceof ScriptAction sa) {
                 Consumer<Runnable> inner = null;
                 if (sa.getType().hasChildren()) {
-                    int posCopy = task.stack().peek();
-                    inner = (preTask) -> task.schedule(posCopy, preTask);
-                    int depth = 0;
-                    while (task.stack().peek() < parts.size()) {
-                        ScriptPart nextPart = parts.get(task.stack().peek());
-                        if (nextPart instanceof ScriptEvent) {
-                            task.stack().clear();
-                            return;
-                        } else if (nextPart instanceof ScriptAction sa2) {
-                            if (sa2.getType().hasChildren()) {
-                                depth++;
-                            } else if (sa2.getType() == ScriptActionType.CLOSE_BRACKET) {
-                                depth--;
-                                if (depth == 0) {
-                                    break;
-                                }
-                            }
-                        } else {
-                            throw new IllegalStateException("Unexpected script part type: " + nextPart.getClass().getName());
-                        }
-                        if (!task.stack().isEmpty()) {
-                            task.stack().increase();
-                        } else {
-                            return;
-                        }
+                    int end = program.blockEnd(pos);
+                    if (end == ScriptProgram.UNCLOSED) {
+                        stack.clear();
+                        return;
                     }
+                    inner = (preTask) -> task.schedule(pos, preTask);
+                    stack.jump(end);
                 }
-                sa.invoke(task.event(), context, inner,task, this);
+                long actionStart = System.nanoTime();
+                sa.invoke(task.event(), context, inner, task, this);
+                profile.action(sa.getType(), System.nanoTime() - actionStart);
                 if (!task.isRunning()) {
                     return;
                 }
                 if (sa.getType() == ScriptActionType.CLOSE_BRACKET) {
-                    if (task.stack().isEmpty()) {
+                    if (stack.isEmpty()) {
                         return;
                     } else {
-                        task.stack().pop();
+                        stack.pop();
                     }
                 }
             } else {
                 throw new IllegalArgumentException("Invalid script part");
             }
-            if (!task.stack().isEmpty()) {
-                task.stack().increase();
+            if (!stack.isEmpty()) {
+                stack.increase();
             } else {
                 return;
             }
         }
     }
 
+    /**
+     * Handlers of cancellable events and of rendering only have an effect while the event is being handled,
+     * so they can't continue next tick.
+     */
+    private static boolean mustFinishNow(Event event) {
+        return event instanceof CancellableEvent || event instanceof HudRenderEvent;
+    }
+
+    /**
+     * Events that come again next tick or frame anyway, so they can be skipped while the script is behind.
+     */
+    private static boolean isRepeating(Event event) {
+        return event instanceof TickEvent || event instanceof HudRenderEvent;
+    }
+
+    private void abort(ScriptTask task) {
+        task.stack().clear();
+        profile.aborted();
+        long tick = Scheduler.getTicks();
+        if (tick - lastAbortWarning >= ABORT_WARNING_TICKS) {
+            lastAbortWarning = tick;
+            ChatUtil.sendMessage("Script " + name + " went over its budget while handling " + task.event().getClass().getSimpleName() + " and was stopped.", ChatType.FAIL);
+        }
+    }
+
+    // Continue with the same action next tick instead of stalling this one
+    private void suspend(ScriptTask task) {
+        profile.suspended();
+        suspendedTasks.add(task);
+        if (resumeTask == null) {
+            resumeTask = Scheduler.schedule(1, this::resume);
+        }
+    }
+
+    private void resume() {
+        resumeTask = null;
+        List<ScriptTask> tasks = new ArrayList<>(suspendedTasks);
+        suspendedTasks.clear();
+        for (ScriptTask task : tasks) {
+            task.run();
+        }
+    }
+
+    public ScriptProgram compile() {
+        program = ScriptProgram.compile(parts);
+        for (int pos = 0; pos < program.size(); pos++) {
+            if (program.get(pos) instanceof ScriptAction sa) {
+                for (ScriptArgument arg : sa.getArguments()) {
+                    if (arg instanceof ScriptVariableArgument va) {
+                        va.slot(context);
+                    }
+                }
+            }
+        }
+        return program;
+    }
+
+    public ScriptProgram getProgram() {
+        if (program == null) {
+            return compile();
+        }
+        return program;
+    }
+
     public List<ScriptPart> getParts() {
         return parts;
     }
@@ -147,6 +248,18 @@ public class Script {
         return context;
     }
 
+    public ScriptProfile getProfile() {
+        return profile;
+    }
+
+    public int getPendingIO() {
+        return pendingIO;
+    }
+
+    public void setPendingIO(int pendingIO) {
+        this.pendingIO = pendingIO;
+    }
+
     public static class Serializer implements JsonSerializer<Script>, JsonDeserializer<Script> {
 
         @Override
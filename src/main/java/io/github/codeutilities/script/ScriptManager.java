@@ -20,7 +20,10 @@ import io.github.codeutilities.script.argument.ScriptNumberArgument;
 import io.github.codeutilities.script.argument.ScriptTextArgument;
 import io.github.codeutilities.script.argument.ScriptVariableArgument;
 import io.github.codeutilities.script.event.ScriptEvent;
+import io.github.codeutilities.script.event.ScriptEventType;
 import io.github.codeutilities.script.event.ScriptStartUpEvent;
+import io.github.codeutilities.script.execution.ScriptEntryPoint;
+import io.github.codeutilities.script.execution.ScriptProgram;
 import io.github.codeutilities.util.FileUtil;
 import io.github.codeutilities.util.chat.ChatType;
 import io.github.codeutilities.util.chat.ChatUtil;
@@ -33,7 +36,10 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -42,6 +48,10 @@ public class ScriptManager implements Loadable {
     private static final Logger LOGGER = LogManager.getLogger("CuModules");
     private static ScriptManager instance;
     private final List<Script> scripts = new ArrayList<>();
+    private final long[] triggerCounts = new long[ScriptEventType.values().length];
+    private volatile Map<Class<? extends Event>, ScriptEntryPoint[]> eventIndex = Map.of();
+    // Problems last sent to chat for each script file, so saving without fixing them does not repeat them
+    private final Map<File, List<String>> reportedProblems = new ConcurrentHashMap<>();
     private final Gson GSON = new GsonBuilder()
         .registerTypeAdapter(Script.class, new Script.Serializer())
         .registerTypeAdapter(ScriptPart.class, new ScriptPart.Serializer())
@@ -112,6 +122,7 @@ public class ScriptManager implements Loadable {
             if (s.getFile().getAbsoluteFile().equals(file.getAbsoluteFile())) {
                 s.setDisabled(true);
                 scripts.remove(s);
+                rebuildEventIndex();
                 return;
             }
         }
@@ -150,7 +161,9 @@ public class ScriptManager implements Loadable {
             String content = FileUtil.readFile(file.toPath());
             Script s = GSON.fromJson(content, Script.class);
             s.setFile(file);
+            compileScript(s);
             scripts.add(s);
+            rebuildEventIndex();
             LOGGER.info("Loaded script: " + file.getName());
         } catch (Exception e) {
             LOGGER.error("Failed to load script: " + file.getName());
@@ -158,7 +171,25 @@ public class ScriptManager implements Loadable {
         }
     }
 
+    private void compileScript(Script script) {
+        List<String> problems = script.compile().getProblems();
+        for (String problem : problems) {
+            LOGGER.warn("Script " + script.getName() + ": " + problem);
+        }
+        if (script.getFile() != null) {
+            List<String> reported = reportedProblems.put(script.getFile().getAbsoluteFile(), List.copyOf(problems));
+            if (problems.equals(reported == null ? List.of() : reported)) {
+                return;
+            }
+        }
+        for (String problem : problems) {
+            ChatUtil.sendMessage("Script " + script.getName() + ": " + problem, ChatType.FAIL);
+        }
+    }
+
     public void saveScript(Script script) {
+        compileScript(script);
+        rebuildEventIndex();
         try {
             FileUtil.writeFile(script.getFile().toPath(), GSON.toJson(script));
         } catch (Exception e) {
@@ -180,10 +211,49 @@ public class ScriptManager implements Loadable {
         manager.register(HudRenderEvent.class, this::handleEvent);
     }
 
-    public void handleEvent(Event event) {
+    private void rebuildEventIndex() {
+        HashMap<Class<? extends Event>, List<ScriptEntryPoint>> index = new HashMap<>();
         for (Script script : scripts) {
-            script.invoke(event);
+            ScriptProgram program = script.getProgram();
+            for (int pos : program.getEntryPoints()) {
+                ScriptEventType type = ((ScriptEvent) program.get(pos)).getType();
+                index.computeIfAbsent(type.getCodeutilitiesEvent(), k -> new ArrayList<>())
+                    .add(new ScriptEntryPoint(script, program, pos, type));
+            }
         }
+
+        HashMap<Class<? extends Event>, ScriptEntryPoint[]> frozen = new HashMap<>();
+        index.forEach((event, entries) -> frozen.put(event, entries.toArray(new ScriptEntryPoint[0])));
+        eventIndex = frozen;
+    }
+
+    public void handleEvent(Event event) {
+        ScriptEntryPoint[] entries = eventIndex.get(event.getClass());
+        if (entries == null) {
+            return;
+        }
+        for (ScriptEntryPoint entry : entries) {
+            if (entry.script().disabled()) {
+                continue;
+            }
+            triggerCounts[entry.type().ordinal()]++;
+            entry.script().invoke(event, entry.program(), entry.pos());
+        }
+    }
+
+    /**
+     * @return how many script entry points have been triggered by events of the given type
+     */
+    public long getTriggerCount(ScriptEventType type) {
+        return triggerCounts[type.ordinal()];
+    }
+
+    /**
+     * @return how many script entry points currently listen for events of the given type
+     */
+    public int getEntryPointCount(ScriptEventType type) {
+        ScriptEntryPoint[] entries = eventIndex.get(type.getCodeutilitiesEvent());
+        return entries == null ? 0 : entries.length;
     }
 
     public List<Script> getScripts() {
@@ -193,6 +263,7 @@ public class ScriptManager implements Loadable {
     public void deleteScript(Script script) {
         if (scripts.contains(script)) {
             scripts.remove(script);
+            rebuildEventIndex();
             if (!script.getFile().delete()) {
                 LOGGER.error("Failed to delete script: " + script.getFile().getName());
             }
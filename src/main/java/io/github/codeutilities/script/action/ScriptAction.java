@@ -11,15 +11,18 @@ import io.github.codeutilities.script.argument.ScriptArgument;
 import io.github.codeutilities.script.execution.ScriptActionContext;
 import io.github.codeutilities.script.execution.ScriptContext;
 import io.github.codeutilities.script.execution.ScriptTask;
+import io.github.codeutilities.util.chat.ChatUtil;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 public class ScriptAction implements ScriptPart {
 
     private final ScriptActionType type;
     private final List<ScriptArgument> arguments;
+    private Map<String, List<ScriptArgument>> binding;
+    private boolean bound;
 
     public ScriptAction(ScriptActionType type, List<ScriptArgument> arguments) {
         this.type = type;
@@ -27,11 +30,27 @@ public class ScriptAction implements ScriptPart {
     }
 
     public void invoke(Event event, ScriptContext context, Consumer<Runnable> inner, ScriptTask task, Script script) {
+        if (!bound) {
+            binding = type.bind(arguments);
+            bound = true;
+        }
+        if (binding == null) {
+            ChatUtil.error("Invalid arguments for " + type.getName() + ".");
+            return;
+        }
         type.run(new ScriptActionContext(
-            context, arguments, event, inner, task, new HashMap<>(), script
+            context, arguments, event, inner, task, binding, script
         ));
     }
 
+    /**
+     * Drops the cached argument binding, must be called whenever the arguments are edited.
+     */
+    public void invalidateBinding() {
+        binding = null;
+        bound = false;
+    }
+
     public ScriptActionType getType() {
         return type;
     }
@@ -2,7 +2,6 @@ package io.github.codeutilities.script.action;
 
 import java.net.*;
 import java.io.*;
-import com.google.common.collect.Lists;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.mojang.brigadier.arguments.StringArgumentType;
@@ -14,7 +13,9 @@ import io.github.codeutilities.event.HudRenderEvent;
 import io.github.codeutilities.event.system.CancellableEvent;
 import io.github.codeutilities.script.action.ScriptActionArgument.ScriptActionArgumentType;
 import io.github.codeutilities.script.argument.ScriptArgument;
+import io.github.codeutilities.script.argument.ScriptVariableArgument;
 import io.github.codeutilities.script.execution.ScriptActionContext;
+import io.github.codeutilities.script.execution.ScriptIO;
 import io.github.codeutilities.script.menu.ScriptMenu;
 import io.github.codeutilities.script.menu.ScriptMenuButton;
 import io.github.codeutilities.script.menu.ScriptMenuItem;
@@ -35,7 +36,6 @@ import io.github.codeutilities.util.ItemUtil;
 import io.github.codeutilities.util.Scheduler;
 import io.github.codeutilities.util.StringUtil;
 import io.github.codeutilities.util.chat.ChatUtil;
-import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -121,13 +121,13 @@ public enum ScriptActionType {
         .hasChildren(true)
         .action(ctx -> {
             if (ctx.argMap().containsKey("Current")) {
-                ctx.context().setVariable(ctx.variable("Current").name(), new ScriptNumberValue(1));
+                ctx.context().setVariable(ctx.variable("Current"), ScriptNumberValue.of(1));
             }
             for (int i = (int) ctx.value("Times").asNumber(); i > 0; i--) {
                 int current = i+1;
                 ctx.scheduleInner(() -> {
                     if (ctx.argMap().containsKey("Current")) {
-                        ctx.context().setVariable(ctx.variable("Current").name(), new ScriptNumberValue(current));
+                        ctx.context().setVariable(ctx.variable("Current"), ScriptNumberValue.of(current));
                     }
                 });
             }
@@ -145,7 +145,7 @@ public enum ScriptActionType {
         .arg("Variable", ScriptActionArgumentType.VARIABLE)
         .arg("Value", ScriptActionArgumentType.ANY)
         .action(ctx -> ctx.context().setVariable(
-            ctx.variable("Variable").name(),
+            ctx.variable("Variable"),
             ctx.value("Value")
         ))),
 
@@ -161,8 +161,8 @@ public enum ScriptActionType {
                 value += val.asNumber();
             }
             ctx.context().setVariable(
-                ctx.variable("Variable").name(),
-                new ScriptNumberValue(value)
+                ctx.variable("Variable"),
+                ScriptNumberValue.of(value)
             );
         })),
 
@@ -178,8 +178,8 @@ public enum ScriptActionType {
                 value -= val.asNumber();
             }
             ctx.context().setVariable(
-                ctx.variable("Variable").name(),
-                new ScriptNumberValue(value)
+                ctx.variable("Variable"),
+                ScriptNumberValue.of(value)
             );
         })),
 
@@ -195,7 +195,7 @@ public enum ScriptActionType {
                 sb.append(arg.asText());
             }
             ctx.context().setVariable(
-                ctx.variable("Result").name(),
+                ctx.variable("Result"),
                 new ScriptTextValue(sb.toString())
             );
         })),
@@ -212,8 +212,8 @@ public enum ScriptActionType {
                 value += val.asNumber();
             }
             ctx.context().setVariable(
-                ctx.variable("Result").name(),
-                new ScriptNumberValue(value)
+                ctx.variable("Result"),
+                ScriptNumberValue.of(value)
             );
         })),
 
@@ -234,8 +234,8 @@ public enum ScriptActionType {
                 }
             }
             ctx.context().setVariable(
-                ctx.variable("Result").name(),
-                new ScriptNumberValue(value)
+                ctx.variable("Result"),
+                ScriptNumberValue.of(value)
             );
         })),
 
@@ -251,8 +251,8 @@ public enum ScriptActionType {
                 value *= val.asNumber();
             }
             ctx.context().setVariable(
-                ctx.variable("Result").name(),
-                new ScriptNumberValue(value)
+                ctx.variable("Result"),
+                ScriptNumberValue.of(value)
             );
         })),
 
@@ -273,8 +273,8 @@ public enum ScriptActionType {
                 }
             }
             ctx.context().setVariable(
-                ctx.variable("Result").name(),
-                new ScriptNumberValue(value)
+                ctx.variable("Result"),
+                ScriptNumberValue.of(value)
             );
         })),
 
@@ -289,8 +289,8 @@ public enum ScriptActionType {
             double dividend = ctx.value("Dividend").asNumber();
             double divisor = ctx.value("Divisor").asNumber();
             ctx.context().setVariable(
-                ctx.variable("Result").name(),
-                new ScriptNumberValue(dividend % divisor)
+                ctx.variable("Result"),
+                ScriptNumberValue.of(dividend % divisor)
             );
         })),
 
@@ -315,31 +315,27 @@ public enum ScriptActionType {
         .arg("Data Received", ScriptActionArgumentType.VARIABLE)
         .hasChildren(true)
         .action(ctx -> {
-            StringBuilder data = new StringBuilder();
-            try {
-                URL url = new URL(ctx.value("URL").asText())
-                URLConnection conn = url.openConnection()
-                BufferedReader read = new BufferedReader(new InputStreamReader(
-                    conn.getInputStream()
-                ));
-                String ln;
-                while ((ln = read.readLine()) != null) {
-                    data.append(ln+"\n");
+            String url = ctx.value("URL").asText();
+            ScriptVariableArgument result = ctx.variable("Data Received");
+            ScriptIO.submit(ctx, () -> {
+                URLConnection conn = new URL(url).openConnection();
+                conn.setConnectTimeout(10000);
+                conn.setReadTimeout(10000);
+                StringBuilder data = new StringBuilder();
+                try (BufferedReader read = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
+                    String ln;
+                    while ((ln = read.readLine()) != null) {
+                        data.append(ln).append("\n");
+                    }
                 }
-                read.close();
-                ctx.context().setVariable(
-                        ctx.variable("Data Received").name(),
-                        new ScriptTextValue(data.toString())
-                );
-            }
-            catch(Exception err)
-            {
-                ctx.context().setVariable(
-                    ctx.variable("Data Received").name,
-                    new ScriptTextValue("Error: "+err)
-                );
-            }
-            ctx.scheduleInner();
+                return data.toString();
+            }, data -> {
+                ctx.context().setVariable(result, new ScriptTextValue(data));
+                ctx.scheduleInner();
+            }, err -> {
+                ctx.context().setVariable(result, new ScriptTextValue("Error: " + err));
+                ctx.scheduleInner();
+            });
         })),
 
     IF_NOT_EQUALS(builder -> builder.name("If Not Equals")
@@ -441,7 +437,7 @@ public enum ScriptActionType {
                     values.add(v.getValue(ctx.event(), ctx.context()));
                 }
             }
-            ctx.context().setVariable(ctx.variable("Variable").name(), new ScriptListValue(values));
+            ctx.context().setVariable(ctx.variable("Variable"), new ScriptListValue(values));
         })),
 
     APPEND_VALUE(builder -> builder.name("Append Value")
@@ -451,11 +447,11 @@ public enum ScriptActionType {
         .arg("List", ScriptActionArgumentType.VARIABLE)
         .arg("Values", ScriptActionArgumentType.ANY, b -> b.plural(true))
         .action(ctx -> {
-            List<ScriptValue> list = ctx.value("List").asList();
+            ScriptListValue list = ScriptListValue.from(ctx.value("List"));
             for (ScriptArgument v : ctx.argMap().get("Values")) {
-                list.add(v.getValue(ctx.event(), ctx.context()));
+                list = list.append(v.getValue(ctx.event(), ctx.context()));
             }
-            ctx.context().setVariable(ctx.variable("List").name(), new ScriptListValue(list));
+            ctx.context().setVariable(ctx.variable("List"), list);
         })),
 
     APPEND_LIST_VALUES(builder -> builder.name("Append List Values")
@@ -466,12 +462,14 @@ public enum ScriptActionType {
             .arg("Other List", ScriptActionArgumentType.LIST)
             .action(ctx -> {
 
-                List<ScriptValue> receiver = ctx.value("Receiving List").asList();
-                List<ScriptValue> donor = ctx.value("Other List").asList();
+                ScriptListValue receiver = ScriptListValue.from(ctx.value("Base List"));
+                ScriptListValue donor = ScriptListValue.from(ctx.value("Other List"));
 
-                receiver.addAll(donor);
+                for (int i = 0; i < donor.size(); i++) {
+                    receiver = receiver.append(donor.get(i));
+                }
 
-                ctx.context().setVariable(ctx.variable("Receiving List").name(), new ScriptListValue(receiver));
+                ctx.context().setVariable(ctx.variable("Base List"), receiver);
             })),
 
     GET_LIST_VALUE(builder -> builder.name("Get List Value")
@@ -482,13 +480,13 @@ public enum ScriptActionType {
         .arg("List", ScriptActionArgumentType.VARIABLE)
         .arg("Index", ScriptActionArgumentType.NUMBER)
         .action(ctx -> {
-            List<ScriptValue> list = ctx.value("List").asList();
+            ScriptListValue list = ScriptListValue.from(ctx.value("List"));
          // force index consistent with diamondfire indexes
             int index = (int) ctx.value("Index").asNumber() - 1;
             if (index < 0 || index >= list.size()) {
-                ctx.context().setVariable(ctx.variable("Result").name(), new ScriptUnknownValue());
+                ctx.context().setVariable(ctx.variable("Result"), new ScriptUnknownValue());
             } else {
-                ctx.context().setVariable(ctx.variable("Result").name(), list.get(index));
+                ctx.context().setVariable(ctx.variable("Result"), list.get(index));
             }
         })),
 
@@ -507,7 +505,7 @@ public enum ScriptActionType {
                 return;
             }
             list.set(index, ctx.value("Value"));
-            ctx.context().setVariable(ctx.variable("List").name(), new ScriptListValue(list));
+            ctx.context().setVariable(ctx.variable("List"), new ScriptListValue(list));
         })),
 
     REMOVE_LIST_AT_INDEX_VALUE(builder -> builder.name("Remove List Value")
@@ -524,7 +522,7 @@ public enum ScriptActionType {
                 return;
             }
             list.remove(index);
-            ctx.context().setVariable(ctx.variable("List").name(), new ScriptListValue(list));
+            ctx.context().setVariable(ctx.variable("List"), new ScriptListValue(list));
         })),
 
     REMOVE_LIST_VALUE(builder -> builder.name("Remove List Value")
@@ -538,7 +536,7 @@ public enum ScriptActionType {
 
             list.removeIf(value -> value.valueEquals(ctx.value("Value")));
 
-            ctx.context().setVariable(ctx.variable("List").name(), new ScriptListValue(list));
+            ctx.context().setVariable(ctx.variable("List"), new ScriptListValue(list));
         })),
 
     LIST_LENGTH(builder -> builder.name("List Length")
@@ -548,7 +546,7 @@ public enum ScriptActionType {
         .arg("Result", ScriptActionArgumentType.VARIABLE)
         .arg("List", ScriptActionArgumentType.LIST)
         .action(ctx -> {
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptNumberValue(ctx.value("List").asList().size()));
+            ctx.context().setVariable(ctx.variable("Result"), ScriptNumberValue.of(ScriptListValue.from(ctx.value("List")).size()));
         })),
 
     IF_LIST_CONTAINS(builder -> builder.name("If List Contains")
@@ -559,7 +557,7 @@ public enum ScriptActionType {
         .arg("Value", ScriptActionArgumentType.ANY)
         .hasChildren(true)
         .action(ctx -> {
-            List<ScriptValue> list = ctx.value("List").asList();
+            List<ScriptValue> list = ScriptListValue.from(ctx.value("List")).view();
             if (list.stream().anyMatch(value -> value.valueEquals(ctx.value("Value")))) {
                 ctx.scheduleInner();
             }
@@ -618,7 +616,7 @@ public enum ScriptActionType {
         .arg("Value", ScriptActionArgumentType.ANY)
         .hasChildren(true)
         .action(ctx -> {
-            List<ScriptValue> list = ctx.value("List").asList();
+            List<ScriptValue> list = ScriptListValue.from(ctx.value("List")).view();
             if (list.stream().noneMatch(value -> value.valueEquals(ctx.value("Value")))) {
                 ctx.scheduleInner();
             }
@@ -677,8 +675,8 @@ public enum ScriptActionType {
             HashMap<String, ScriptValue> dict = new HashMap<String, ScriptValue>();
 
                 if (ctx.argMap().containsKey("Keys") && ctx.argMap().containsKey("Values")) {
-                    List<ScriptValue> keys = ctx.value("Keys").asList();
-                    List<ScriptValue> values = ctx.value("Values").asList();
+                    List<ScriptValue> keys = ScriptListValue.from(ctx.value("Keys")).view();
+                    List<ScriptValue> values = ScriptListValue.from(ctx.value("Values")).view();
 
                     // make sure we don't iterate past the end of a list
                     int lowerLength = Math.min(keys.size(), values.size());
@@ -688,7 +686,7 @@ public enum ScriptActionType {
                     }
                 }
 
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptDictionaryValue(dict));
+            ctx.context().setVariable(ctx.variable("Result"), new ScriptDictionaryValue(dict));
         })),
 
     GET_DICT_VALUE(builder -> builder.name("Get Dictionary Value")
@@ -699,12 +697,12 @@ public enum ScriptActionType {
         .arg("Dictionary", ScriptActionArgumentType.DICTIONARY)
         .arg("Key", ScriptActionArgumentType.TEXT)
         .action(ctx -> {
-            HashMap<String, ScriptValue> dict = ctx.value("Dictionary").asDictionary();
+            ScriptDictionaryValue dict = ScriptDictionaryValue.from(ctx.value("Dictionary"));
             String key = ctx.value("Key").asText();
             if (dict.containsKey(key)) {
-                ctx.context().setVariable(ctx.variable("Result").name(), dict.get(key));
+                ctx.context().setVariable(ctx.variable("Result"), dict.get(key));
             } else {
-                ctx.context().setVariable(ctx.variable("Result").name(), new ScriptUnknownValue());
+                ctx.context().setVariable(ctx.variable("Result"), new ScriptUnknownValue());
             }
         })),
 
@@ -719,7 +717,7 @@ public enum ScriptActionType {
             HashMap<String, ScriptValue> dict = ctx.value("Dictionary").asDictionary();
             String key = ctx.value("Key").asText();
             dict.put(key, ctx.value("Value"));
-            ctx.context().setVariable(ctx.variable("Dictionary").name(), new ScriptDictionaryValue(dict));
+            ctx.context().setVariable(ctx.variable("Dictionary"), new ScriptDictionaryValue(dict));
         })),
 
     GET_DICT_SIZE(builder -> builder.name("Get Dictionary Size")
@@ -729,8 +727,8 @@ public enum ScriptActionType {
         .arg("Result", ScriptActionArgumentType.VARIABLE)
         .arg("Dictionary", ScriptActionArgumentType.DICTIONARY)
         .action(ctx -> {
-            HashMap<String, ScriptValue> dict = ctx.value("Dictionary").asDictionary();
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptNumberValue(dict.size()));
+            ScriptDictionaryValue dict = ScriptDictionaryValue.from(ctx.value("Dictionary"));
+            ctx.context().setVariable(ctx.variable("Result"), ScriptNumberValue.of(dict.size()));
         })),
 
     IF_DICT_KEY_EXISTS(builder -> builder.name("If Dictionary Key Exists")
@@ -741,7 +739,7 @@ public enum ScriptActionType {
         .arg("Key", ScriptActionArgumentType.TEXT)
         .hasChildren(true)
         .action(ctx -> {
-            HashMap<String, ScriptValue> dict = ctx.value("Dictionary").asDictionary();
+            ScriptDictionaryValue dict = ScriptDictionaryValue.from(ctx.value("Dictionary"));
             String key = ctx.value("Key").asText();
             if (dict.containsKey(key)) {
                 ctx.scheduleInner();
@@ -758,7 +756,7 @@ public enum ScriptActionType {
             HashMap<String, ScriptValue> dict = ctx.value("Dictionary").asDictionary();
             String key = ctx.value("Key").asText();
             dict.remove(key);
-            ctx.context().setVariable(ctx.variable("Dictionary").name(), new ScriptDictionaryValue(dict));
+            ctx.context().setVariable(ctx.variable("Dictionary"), new ScriptDictionaryValue(dict));
         })),
 
 
@@ -770,16 +768,24 @@ public enum ScriptActionType {
         .arg("List", ScriptActionArgumentType.LIST)
         .hasChildren(true)
         .action(ctx -> {
-            List<ScriptValue> list = ctx.value("List").asList();
-            if (!list.isEmpty()) {
-                ctx.context().setVariable(ctx.variable("Variable").name(), list.get(0));
-            }
-            Lists.reverse(list);
-            for (ScriptValue item : list) {
-                ctx.scheduleInner(() -> {
-                    ctx.context().setVariable(ctx.variable("Variable").name(), item);
-                });
+            ScriptListValue list = ScriptListValue.from(ctx.value("List"));
+            if (list.size() == 0) {
+                return;
             }
+            ctx.context().setVariable(ctx.variable("Variable"), list.get(0));
+            // Runs after each iteration and schedules the next one, so the loop doesn't allocate per item
+            ctx.scheduleInner(new Runnable() {
+                private int index = 0;
+
+                @Override
+                public void run() {
+                    index++;
+                    if (index < list.size()) {
+                        ctx.context().setVariable(ctx.variable("Variable"), list.get(index));
+                        ctx.scheduleInner(this);
+                    }
+                }
+            });
         })),
 
     DICT_FOR_EACH(builder -> builder.name("For Each In Dictionary")
@@ -791,11 +797,11 @@ public enum ScriptActionType {
         .arg("Dictionary", ScriptActionArgumentType.DICTIONARY)
         .hasChildren(true)
         .action(ctx -> {
-            HashMap<String, ScriptValue> dict = ctx.value("Dictionary").asDictionary();
+            Map<String, ScriptValue> dict = ScriptDictionaryValue.from(ctx.value("Dictionary")).view();
             for (Map.Entry<String, ScriptValue> entry : dict.entrySet()) {
                 ctx.scheduleInner(() -> {
-                    ctx.context().setVariable(ctx.variable("Key").name(), new ScriptTextValue(entry.getKey()));
-                    ctx.context().setVariable(ctx.variable("Value").name(), entry.getValue());
+                    ctx.context().setVariable(ctx.variable("Key"), new ScriptTextValue(entry.getKey()));
+                    ctx.context().setVariable(ctx.variable("Value"), entry.getValue());
                 });
             }
         })),
@@ -808,7 +814,7 @@ public enum ScriptActionType {
         .arg("Number", ScriptActionArgumentType.NUMBER)
         .action(ctx -> {
             double number = ctx.value("Number").asNumber();
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptNumberValue(Math.round(number)));
+            ctx.context().setVariable(ctx.variable("Result"), ScriptNumberValue.of(Math.round(number)));
         })),
 
     FLOOR_NUM(builder -> builder.name("Floor Number")
@@ -819,7 +825,7 @@ public enum ScriptActionType {
         .arg("Number", ScriptActionArgumentType.NUMBER)
         .action(ctx -> {
             double number = ctx.value("Number").asNumber();
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptNumberValue(Math.floor(number)));
+            ctx.context().setVariable(ctx.variable("Result"), ScriptNumberValue.of(Math.floor(number)));
         })),
 
     CEIL_NUM(builder -> builder.name("Ceil Number")
@@ -830,7 +836,7 @@ public enum ScriptActionType {
         .arg("Number", ScriptActionArgumentType.NUMBER)
         .action(ctx -> {
             double number = ctx.value("Number").asNumber();
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptNumberValue(Math.ceil(number)));
+            ctx.context().setVariable(ctx.variable("Result"), ScriptNumberValue.of(Math.ceil(number)));
         })),
 
     REGISTER_CMD(builder -> builder.name("Register Command")
@@ -909,7 +915,7 @@ public enum ScriptActionType {
                 split.add(new ScriptTextValue(s));
             }
 
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptListValue(split));
+            ctx.context().setVariable(ctx.variable("Result"), new ScriptListValue(split));
         })),
 
     STOP(builder -> builder.name("Stop")
@@ -1041,12 +1047,12 @@ public enum ScriptActionType {
                 separator = ctx.value("Separator").asText();
             }
 
-            String result = ctx.value("List")
-                .asList().stream()
+            String result = ScriptListValue.from(ctx.value("List"))
+                .view().stream()
                 .map(ScriptValue::asText)
                 .collect(Collectors.joining(separator));
 
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptTextValue(result));
+            ctx.context().setVariable(ctx.variable("Result"), new ScriptTextValue(result));
         })),
 
     TEXT_INDEX_OF(builder -> builder.name("Index Of Text")
@@ -1058,7 +1064,7 @@ public enum ScriptActionType {
         .arg("Subtext",ScriptActionArgumentType.TEXT)
         .action(ctx -> {
             int result = ctx.value("Text").asText().indexOf(ctx.value("Subtext").asText());
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptNumberValue(result));
+            ctx.context().setVariable(ctx.variable("Result"), ScriptNumberValue.of(result));
         })),
 
     TEXT_SUBTEXT(builder -> builder.name("Get Subtext")
@@ -1074,7 +1080,7 @@ public enum ScriptActionType {
             int start = (int)ctx.value("First Index").asNumber();
             int end = (int)ctx.value("Last Index").asNumber()+1;
             String result = text.substring(start, end);
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptTextValue(result));
+            ctx.context().setVariable(ctx.variable("Result"), new ScriptTextValue(result));
         })),
 
     READ_FILE(builder -> builder.name("Read File")
@@ -1088,17 +1094,21 @@ public enum ScriptActionType {
 
             if (filename.matches("^[a-zA-Z\\d_\\-\\. ]+$")) {
                 Path f = FileUtil.cuFolder("Scripts").resolve(ctx.script().getFile().getName()+"-files").resolve(filename);
-                if (Files.exists(f)) {
-                    try {
-                        String content = FileUtil.readFile(f);
-                        JsonElement json = JsonParser.parseString(content);
-                        ScriptValue value = ScriptValueJson.fromJson(json);
-                        ctx.context().setVariable(ctx.variable("Result").name(), value);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                        ChatUtil.error("Internal error while reading file.");
+                ScriptVariableArgument result = ctx.variable("Result");
+                ScriptIO.submit(ctx, () -> {
+                    if (!Files.exists(f)) {
+                        return null;
                     }
-                }
+                    JsonElement json = JsonParser.parseString(FileUtil.readFile(f));
+                    return ScriptValueJson.fromJson(json);
+                }, value -> {
+                    if (value != null) {
+                        ctx.context().setVariable(result, value);
+                    }
+                }, err -> {
+                    err.printStackTrace();
+                    ChatUtil.error("Internal error while reading file.");
+                });
             } else {
                 ChatUtil.error("Illegal filename: " + filename);
             }
@@ -1116,13 +1126,16 @@ public enum ScriptActionType {
 
             if (filename.matches("^[a-zA-Z\\d_\\-\\. ]+$")) {
                 Path f = FileUtil.cuFolder("Scripts").resolve(ctx.script().getFile().getName()+"-files").resolve(filename);
-                try {
+                String content = ScriptValueJson.toJson(value).toString();
+                ScriptIO.submit(ctx, () -> {
                     f.toFile().getParentFile().mkdirs();
-                    FileUtil.writeFile(f, ScriptValueJson.toJson(value).toString());
-                } catch (IOException e) {
-                    e.printStackTrace();
+                    FileUtil.writeFile(f, content);
+                    return null;
+                }, done -> {
+                }, err -> {
+                    err.printStackTrace();
                     ChatUtil.error("Internal error while writing file.");
-                }
+                });
             } else {
                 ChatUtil.error("Illegal filename: " + filename);
             }
@@ -1155,9 +1168,9 @@ public enum ScriptActionType {
         .action(ctx -> {
             String text = ctx.value("Text").asText();
             try {
-                ctx.context().setVariable(ctx.variable("Result").name(), new ScriptNumberValue(Double.parseDouble(text)));
+                ctx.context().setVariable(ctx.variable("Result"), ScriptNumberValue.of(Double.parseDouble(text)));
             } catch (NumberFormatException e) {
-                ctx.context().setVariable(ctx.variable("Result").name(), new ScriptUnknownValue());
+                ctx.context().setVariable(ctx.variable("Result"), new ScriptUnknownValue());
             }
         })),
 
@@ -1222,7 +1235,7 @@ public enum ScriptActionType {
             String text = ctx.value("Text").asText();
             Text t = ComponentUtil.fromString(ComponentUtil.andsToSectionSigns(text));
             int width = CodeUtilities.MC.textRenderer.getWidth(t);
-            ctx.context().setVariable(ctx.variable("Result").name(), new ScriptNumberValue(width));
+            ctx.context().setVariable(ctx.variable("Result"), ScriptNumberValue.of(width));
         })),
 
     OPEN_MENU(builder -> builder.name("Open Menu")
@@ -1377,7 +1390,7 @@ public enum ScriptActionType {
 
                     if (w instanceof ScriptMenuTextField field) {
                         ctx.context().setVariable(
-                            ctx.variable("Result").name(),
+                            ctx.variable("Result"),
                             new ScriptTextValue(field.getText())
                         );
                     } else {
@@ -1428,8 +1441,8 @@ public enum ScriptActionType {
             double max = ctx.value("Max").asNumber();
             double result = Math.random() * (max - min) + min;
             ctx.context().setVariable(
-                ctx.variable("Result").name(),
-                new ScriptNumberValue(result)
+                ctx.variable("Result"),
+                ScriptNumberValue.of(result)
             );
         }));
 
@@ -1526,6 +1539,15 @@ public enum ScriptActionType {
     }
 
     public void run(ScriptActionContext ctx) {
+        action.accept(ctx);
+    }
+
+    /**
+     * Matches the given arguments against this action's signature.
+     *
+     * @return the argument name to argument(s) binding, or null if no signature matches
+     */
+    public Map<String, List<ScriptArgument>> bind(List<ScriptArgument> given) {
         List<List<ScriptActionArgument>> possibilities = new ArrayList<>();
 
         generatePossibilities(possibilities, new ArrayList<>(), arguments, 0);
@@ -1533,35 +1555,34 @@ public enum ScriptActionType {
         search:
         for (List<ScriptActionArgument> possibility : possibilities) {
             int pos = 0;
-            ctx.argMap().clear();
+            HashMap<String, List<ScriptArgument>> argMap = new HashMap<>();
             for (ScriptActionArgument arg : possibility) {
                 List<ScriptArgument> args = new ArrayList<>();
-                if (pos >= ctx.arguments().size()) {
+                if (pos >= given.size()) {
                     continue search;
                 }
-                if (ctx.arguments().get(pos).convertableTo(arg.type())) {
-                    args.add(ctx.arguments().get(pos));
+                if (given.get(pos).convertableTo(arg.type())) {
+                    args.add(given.get(pos));
                     pos++;
                 }
                 if (arg.plural()) {
-                    while (pos < ctx.arguments().size()) {
-                        if (ctx.arguments().get(pos).convertableTo(arg.type())) {
-                            args.add(ctx.arguments().get(pos));
+                    while (pos < given.size()) {
+                        if (given.get(pos).convertableTo(arg.type())) {
+                            args.add(given.get(pos));
                             pos++;
                         } else {
                             break;
                         }
                     }
                 }
-                ctx.setArg(arg.name(), args);
+                argMap.put(arg.name(), List.copyOf(args));
             }
-            if (pos == ctx.arguments().size()) {
-                action.accept(ctx);
-                return;
+            if (pos == given.size()) {
+                return Map.copyOf(argMap);
             }
         }
 
-        ChatUtil.error("Invalid arguments for " + name + ".");
+        return null;
     }
 
     private void generatePossibilities(List<List<ScriptActionArgument>> possibilities, ArrayList<ScriptActionArgument> current, List<ScriptActionArgument> arguments, int pos) {
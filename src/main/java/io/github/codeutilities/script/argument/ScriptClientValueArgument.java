@@ -36,7 +36,7 @@ public enum ScriptClientValueArgument implements ScriptArgument {
 
     EVENT_KEY("KeyPressed","The key code of the key pressed. (KeyPressEvent)", Items.STONE_BUTTON, ScriptActionArgumentType.NUMBER, (event, context) -> {
         if (event instanceof KeyPressEvent e) {
-            return new ScriptNumberValue(e.getKey().getCode());
+            return ScriptNumberValue.of(e.getKey().getCode());
         } else {
             throw new IllegalStateException("Event is not a KeyPressEvent");
         }
@@ -44,7 +44,7 @@ public enum ScriptClientValueArgument implements ScriptArgument {
 
     EVENT_KEY_ACTION("KeyAction","The code of the key action performed. (KeyPressEvent)", Items.OAK_BUTTON, ScriptActionArgumentType.NUMBER, (event,context) -> {
         if (event instanceof KeyPressEvent e) {
-            return new ScriptNumberValue(e.getAction());
+            return ScriptNumberValue.of(e.getAction());
         } else {
             throw new IllegalStateException("Event is not a KeyPressEvent");
         }
@@ -52,7 +52,7 @@ public enum ScriptClientValueArgument implements ScriptArgument {
 
     EVENT_MESSAGE("ReceivedMessage","The message received. (ReceiveChatEvent)", Items.WRITTEN_BOOK, ScriptActionArgumentType.TEXT, (event,context) -> {
         if (event instanceof ReceiveChatEvent e) {
-            return new ScriptTextValue(ComponentUtil.sectionSignsToAnds(ComponentUtil.toFormattedString(e.getMessage())));
+            return new ScriptTextValue(ComponentUtil.sectionSignsToAnds(e.getAnalysis().getFormatted()));
         } else {
             throw new IllegalStateException("Event is not a ReceiveChatEvent");
         }
@@ -66,7 +66,7 @@ public enum ScriptClientValueArgument implements ScriptArgument {
         }
     }),
 
-    TIMESTAMP("Timestamp","The current timestamp in milliseconds.", Items.CLOCK, ScriptActionArgumentType.NUMBER, (event,context) -> new ScriptNumberValue(System.currentTimeMillis())),
+    TIMESTAMP("Timestamp","The current timestamp in milliseconds.", Items.CLOCK, ScriptActionArgumentType.NUMBER, (event,context) -> ScriptNumberValue.of(System.currentTimeMillis())),
 
     MAIN_HAND_ITEM("MainHandItem","The item in the players main hand.", Items.STONE_BUTTON, ScriptActionArgumentType.DICTIONARY,
         (event,context) -> ScriptValueItem.valueFromItem(CodeUtilities.MC.player.getMainHandStack())
@@ -109,7 +109,7 @@ public enum ScriptClientValueArgument implements ScriptArgument {
     }),
 
     SELECTED_SLOT("Selected Slot", "The selected hotbar slot.", Items.LIME_DYE, ScriptActionArgumentType.NUMBER,
-        (event, context) -> new ScriptNumberValue(CodeUtilities.MC.player.getInventory().selectedSlot)
+        (event, context) -> ScriptNumberValue.of(CodeUtilities.MC.player.getInventory().selectedSlot)
     ),
 
     GAME_MODE("Game Mode", "The gamemode the player is in.", Items.BEDROCK, ScriptActionArgumentType.TEXT,
@@ -117,11 +117,11 @@ public enum ScriptClientValueArgument implements ScriptArgument {
     ),
 
     WINDOW_WIDTH("Window Width", "The width of the current window.", Items.STICK, ScriptActionArgumentType.NUMBER,
-        (event, context) -> new ScriptNumberValue(CodeUtilities.MC.getWindow().getScaledWidth())
+        (event, context) -> ScriptNumberValue.of(CodeUtilities.MC.getWindow().getScaledWidth())
     ),
 
     WINDOW_HEIGHT("Window Height", "The height of the current window.", Items.STICK, ScriptActionArgumentType.NUMBER,
-        (event, context) -> new ScriptNumberValue(CodeUtilities.MC.getWindow().getScaledHeight())
+        (event, context) -> ScriptNumberValue.of(CodeUtilities.MC.getWindow().getScaledHeight())
     ),
 
     MENU_ELEMENT_IDENTIFIER("Menu Element Identifier", "The identifier of the menu element that triggered the event.", Items.NAME_TAG, ScriptActionArgumentType.TEXT,(event, scriptContext) -> {
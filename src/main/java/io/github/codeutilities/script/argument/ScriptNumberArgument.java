@@ -15,7 +15,7 @@ public record ScriptNumberArgument(double value) implements ScriptArgument {
 
     @Override
     public ScriptValue getValue(Event event, ScriptContext context) {
-        return new ScriptNumberValue(value);
+        return ScriptNumberValue.of(value);
     }
 
     @Override
@@ -10,11 +10,32 @@ import io.github.codeutilities.script.execution.ScriptContext;
 import io.github.codeutilities.script.values.ScriptValue;
 import java.lang.reflect.Type;
 
-public record ScriptVariableArgument(String name) implements ScriptArgument{
+public class ScriptVariableArgument implements ScriptArgument {
+
+    private final String name;
+    private int slot = -1;
+
+    public ScriptVariableArgument(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the slot of this variable in the given context, resolved on first use
+     */
+    public int slot(ScriptContext context) {
+        if (slot < 0) {
+            slot = context.resolve(name);
+        }
+        return slot;
+    }
 
     @Override
     public ScriptValue getValue(Event event, ScriptContext context) {
-        return context.getVariable(name);
+        return context.getVariable(slot(context));
     }
 
 
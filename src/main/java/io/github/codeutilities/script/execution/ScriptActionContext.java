@@ -5,16 +5,12 @@ import io.github.codeutilities.script.Script;
 import io.github.codeutilities.script.argument.ScriptArgument;
 import io.github.codeutilities.script.argument.ScriptVariableArgument;
 import io.github.codeutilities.script.values.ScriptValue;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-public record ScriptActionContext(ScriptContext context, List<ScriptArgument> arguments, Event event, Consumer<Runnable> inner, ScriptTask task, HashMap<String, List<ScriptArgument>> argMap, Script script) {
-
-    public void setArg(String name, List<ScriptArgument> args) {
-        argMap.put(name, args);
-    }
+public record ScriptActionContext(ScriptContext context, List<ScriptArgument> arguments, Event event, Consumer<Runnable> inner, ScriptTask task, Map<String, List<ScriptArgument>> argMap, Script script) {
 
     public List<ScriptArgument> pluralArg(String messages) {
         return argMap.get(messages);
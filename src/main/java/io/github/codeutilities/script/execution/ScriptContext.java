@@ -1,32 +1,87 @@
 package io.github.codeutilities.script.execution;
 
+import io.github.codeutilities.script.argument.ScriptVariableArgument;
 import io.github.codeutilities.script.values.ScriptUnknownValue;
 import io.github.codeutilities.script.values.ScriptValue;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
 public class ScriptContext {
 
-    private final HashMap<String,ScriptValue> variables = new HashMap<>();
+    private static final ScriptValue UNKNOWN = new ScriptUnknownValue();
+
+    private final HashMap<String, Integer> slots = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private ScriptValue[] values = new ScriptValue[16];
+    private int assigned = 0;
+
+    /**
+     * Resolves a variable name to its slot, allocating a new slot for names that haven't been seen yet.
+     */
+    public int resolve(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = names.size();
+            slots.put(name, slot);
+            names.add(name);
+            if (slot >= values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+        }
+        return slot;
+    }
+
+    public ScriptValue getVariable(int slot) {
+        ScriptValue value = values[slot];
+        return value == null ? UNKNOWN : value;
+    }
+
+    public void setVariable(int slot, ScriptValue value) {
+        if (values[slot] == null) {
+            assigned++;
+        }
+        values[slot] = value;
+    }
 
     public ScriptValue getVariable(String name) {
-        if (!variables.containsKey(name)) {
-            return new ScriptUnknownValue();
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            return UNKNOWN;
         }
-        return variables.get(name);
+        return getVariable(slot);
     }
 
     public void setVariable(String name, ScriptValue value) {
-        variables.put(name, value);
+        setVariable(resolve(name), value);
+    }
+
+    public void setVariable(ScriptVariableArgument variable, ScriptValue value) {
+        setVariable(variable.slot(this), value);
     }
 
     public List<Entry<String, ScriptValue>> listVariables(String filter) {
-        return variables.entrySet().stream().filter(entry -> entry.getKey().contains(filter)).collect(Collectors.toList());
+        List<Entry<String, ScriptValue>> result = new ArrayList<>();
+        for (int slot = 0; slot < names.size(); slot++) {
+            String name = names.get(slot);
+            if (values[slot] != null && name.contains(filter)) {
+                result.add(new SimpleImmutableEntry<>(name, values[slot]));
+            }
+        }
+        return result;
     }
 
     public int getVariableCount() {
-        return variables.size();
+        return assigned;
+    }
+
+    /**
+     * @return the amount of distinct variable names used by the script, assigned or not
+     */
+    public int getSlotCount() {
+        return names.size();
     }
 }
@@ -0,0 +1,8 @@
+package io.github.codeutilities.script.execution;
+
+import io.github.codeutilities.script.Script;
+import io.github.codeutilities.script.event.ScriptEventType;
+
+public record ScriptEntryPoint(Script script, ScriptProgram program, int pos, ScriptEventType type) {
+
+}
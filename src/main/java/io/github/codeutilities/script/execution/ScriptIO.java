@@ -0,0 +1,87 @@
+package io.github.codeutilities.script.execution;
+
+import io.github.codeutilities.CodeUtilities;
+import io.github.codeutilities.config.ConfigKey;
+import io.github.codeutilities.script.Script;
+import io.github.codeutilities.util.Scheduler;
+import io.github.codeutilities.util.chat.ChatType;
+import io.github.codeutilities.util.chat.ChatUtil;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs blocking script actions off the client thread, parking the task like {@link io.github.codeutilities.script.action.ScriptActionType#WAIT} does.
+ */
+public class ScriptIO {
+
+    private static final Logger LOGGER = LogManager.getLogger("ScriptIO");
+    private static final int POOL_SIZE = 4;
+    private static final ConfigKey<Integer> MAX_PENDING = ConfigKey.of("scriptMaxPendingIO", Integer.class);
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private static ExecutorService createExecutor() {
+        try {
+            // Only available on newer runtimes, fall back to a small pool otherwise
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(POOL_SIZE, r -> {
+            Thread t = new Thread(r, "Script-IO-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Stops the task of the given action and runs {@code io} in the background.
+     * Its result (or error) is handed to {@code done} (or {@code failed}) on the client thread, after which the task continues with the next action.
+     * If the script already has too many requests outstanding, the request is retried next tick instead.
+     * Everything {@code io} needs must be read from the context before calling this.
+     */
+    public static <T> void submit(ScriptActionContext ctx, Callable<T> io, Consumer<T> done, Consumer<Exception> failed) {
+        ScriptTask task = ctx.task();
+        Script script = ctx.script();
+
+        task.stop();
+        int limit = MAX_PENDING.get();
+        if (limit > 0 && script.getPendingIO() >= limit) {
+            // Retries the request itself, the stack of an action with children already points at its end
+            Scheduler.schedule(1, () -> submit(ctx, io, done, failed));
+            return;
+        }
+
+        script.setPendingIO(script.getPendingIO() + 1);
+        EXECUTOR.execute(() -> {
+            T result = null;
+            Exception error = null;
+            try {
+                result = io.call();
+            } catch (Exception err) {
+                error = err;
+            }
+            T finalResult = result;
+            Exception finalError = error;
+            CodeUtilities.MC.submit(() -> {
+                script.setPendingIO(script.getPendingIO() - 1);
+                try {
+                    if (finalError == null) {
+                        done.accept(finalResult);
+                    } else {
+                        failed.accept(finalError);
+                    }
+                    task.stack().increase();
+                    task.run();
+                } catch (Exception err) {
+                    ChatUtil.sendMessage("Error while resuming script " + script.getName() + ": " + err.getMessage(), ChatType.FAIL);
+                    LOGGER.error("Error while resuming script " + script.getName(), err);
+                }
+            });
+        });
+    }
+}
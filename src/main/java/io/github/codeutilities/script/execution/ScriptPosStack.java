@@ -1,53 +1,63 @@
 package io.github.codeutilities.script.execution;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 public class ScriptPosStack {
 
-    private final List<Integer> data = new ArrayList<>();
-    private final List<Runnable> preTasks = new ArrayList<>();
+    private int[] data = new int[8];
+    private Runnable[] preTasks = new Runnable[8];
+    private int size = 0;
 
     public ScriptPosStack(int initial) {
-        data.add(initial);
-        preTasks.add(null);
+        push(initial);
     }
 
     public void push(int value, Runnable preTask) {
-        data.add(value);
-        preTasks.add(preTask);
+        if (size == data.length) {
+            data = Arrays.copyOf(data, size * 2);
+            preTasks = Arrays.copyOf(preTasks, size * 2);
+        }
+        data[size] = value;
+        preTasks[size] = preTask;
+        size++;
     }
 
     public void push(int value) {
-        data.add(value);
-        preTasks.add(null);
+        push(value, null);
     }
 
     public void pop() {
-        Runnable preTask = preTasks.remove(preTasks.size() - 1);
+        size--;
+        Runnable preTask = preTasks[size];
+        preTasks[size] = null;
+        // Run after removing the entry, so the pre task may push a new one
         if (preTask != null) {
             preTask.run();
         }
-        data.remove(data.size() - 1);
     }
 
     public int peek() {
-        return data.get(data.size() - 1);
+        return data[size - 1];
     }
 
     public int size() {
-        return data.size();
+        return size;
     }
 
     public boolean isEmpty() {
-        return data.isEmpty();
+        return size == 0;
     }
 
     public void clear() {
-        data.clear();
+        Arrays.fill(preTasks, 0, size, null);
+        size = 0;
+    }
+
+    public void jump(int pos) {
+        data[size - 1] = pos;
     }
 
     public void increase() {
-        data.set(data.size() - 1, data.get(data.size() - 1) + 1);
+        data[size - 1]++;
     }
 }
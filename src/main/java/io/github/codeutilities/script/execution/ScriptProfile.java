@@ -0,0 +1,146 @@
+package io.github.codeutilities.script.execution;
+
+import io.github.codeutilities.config.ConfigKey;
+import io.github.codeutilities.script.action.ScriptActionType;
+import io.github.codeutilities.util.Scheduler;
+
+/**
+ * Execution statistics of a single script, and the bookkeeping for its per-tick budget.
+ * Only touched from the client thread.
+ */
+public class ScriptProfile {
+
+    private static final ScriptActionType[] TYPES = ScriptActionType.values();
+    private static final ConfigKey<Integer> INSTRUCTION_BUDGET = ConfigKey.of("scriptInstructionBudget", Integer.class);
+    private static final ConfigKey<Integer> TIME_BUDGET = ConfigKey.of("scriptTimeBudget", Integer.class);
+
+    private long invocations;
+    private long runs;
+    private long totalNanos;
+    private long maxNanos;
+    private long suspensions;
+    private long aborts;
+    private long dropped;
+
+    private final long[] actionCounts = new long[TYPES.length];
+    private final long[] actionNanos = new long[TYPES.length];
+    private final long[] actionMaxNanos = new long[TYPES.length];
+
+    private long budgetTick = -1;
+    private int instructionBudget;
+    private long timeBudget;
+    private int instructionsThisTick;
+    private long nanosThisTick;
+
+    public void invoked() {
+        invocations++;
+    }
+
+    public void run(long nanos) {
+        runs++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public void action(ScriptActionType type, long nanos) {
+        int i = type.ordinal();
+        actionCounts[i]++;
+        actionNanos[i] += nanos;
+        actionMaxNanos[i] = Math.max(actionMaxNanos[i], nanos);
+        instructionsThisTick++;
+        nanosThisTick += nanos;
+    }
+
+    /**
+     * Resets the budget once per tick and picks up changes to the budget settings.
+     */
+    public void beginRun() {
+        long tick = Scheduler.getTicks();
+        if (tick != budgetTick) {
+            budgetTick = tick;
+            instructionsThisTick = 0;
+            nanosThisTick = 0;
+            instructionBudget = INSTRUCTION_BUDGET.get();
+            timeBudget = TIME_BUDGET.get() * 1_000_000L;
+        }
+    }
+
+    public boolean overBudget() {
+        return (instructionBudget > 0 && instructionsThisTick >= instructionBudget)
+            || (timeBudget > 0 && nanosThisTick >= timeBudget);
+    }
+
+    public void suspended() {
+        suspensions++;
+    }
+
+    public void aborted() {
+        aborts++;
+    }
+
+    public void dropped() {
+        dropped++;
+    }
+
+    public void reset() {
+        invocations = 0;
+        runs = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+        suspensions = 0;
+        aborts = 0;
+        dropped = 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            actionCounts[i] = 0;
+            actionNanos[i] = 0;
+            actionMaxNanos[i] = 0;
+        }
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getSuspensions() {
+        return suspensions;
+    }
+
+    public long getAborts() {
+        return aborts;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getActionCount(ScriptActionType type) {
+        return actionCounts[type.ordinal()];
+    }
+
+    public long getActionNanos(ScriptActionType type) {
+        return actionNanos[type.ordinal()];
+    }
+
+    public long getActionMaxNanos(ScriptActionType type) {
+        return actionMaxNanos[type.ordinal()];
+    }
+
+    public static String format(long nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format("%.1fms", nanos / 1_000_000d);
+        }
+        return String.format("%.1fus", nanos / 1_000d);
+    }
+}
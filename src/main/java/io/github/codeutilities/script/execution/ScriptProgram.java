@@ -0,0 +1,107 @@
+package io.github.codeutilities.script.execution;
+
+import io.github.codeutilities.script.ScriptPart;
+import io.github.codeutilities.script.action.ScriptAction;
+import io.github.codeutilities.script.action.ScriptActionType;
+import io.github.codeutilities.script.event.ScriptEvent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Flat, immutable snapshot of a script's parts with every block's matching
+ * close bracket resolved up front, so the interpreter never has to scan for it.
+ */
+public class ScriptProgram {
+
+    /**
+     * Jump target of a block that is cut off by the next event before it is closed.
+     * Running into such a block ends the task.
+     */
+    public static final int UNCLOSED = -1;
+
+    private final ScriptPart[] parts;
+    private final int[] blockEnds;
+    private final int[] entryPoints;
+    private final List<String> problems;
+
+    private ScriptProgram(ScriptPart[] parts, int[] blockEnds, int[] entryPoints, List<String> problems) {
+        this.parts = parts;
+        this.blockEnds = blockEnds;
+        this.entryPoints = entryPoints;
+        this.problems = problems;
+    }
+
+    public static ScriptProgram compile(List<ScriptPart> source) {
+        ScriptPart[] parts = source.toArray(new ScriptPart[0]);
+        int[] blockEnds = new int[parts.length];
+        Arrays.fill(blockEnds, UNCLOSED);
+        List<String> problems = new ArrayList<>();
+        List<Integer> entryPoints = new ArrayList<>();
+        Deque<Integer> open = new ArrayDeque<>();
+
+        for (int pos = 0; pos < parts.length; pos++) {
+            ScriptPart part = parts[pos];
+            if (part instanceof ScriptEvent se) {
+                entryPoints.add(pos);
+                while (!open.isEmpty()) {
+                    int start = open.pop();
+                    problems.add("Unclosed " + name(parts[start]) + " at action " + (start + 1) + " (before " + se.getType().getName() + ")");
+                }
+            } else if (part instanceof ScriptAction sa) {
+                if (sa.getType().hasChildren()) {
+                    open.push(pos);
+                } else if (sa.getType() == ScriptActionType.CLOSE_BRACKET) {
+                    if (open.isEmpty()) {
+                        problems.add("Unexpected " + name(part) + " at action " + (pos + 1));
+                    } else {
+                        blockEnds[open.pop()] = pos;
+                    }
+                }
+            } else {
+                throw new IllegalStateException("Unexpected script part type: " + part.getClass().getName());
+            }
+        }
+
+        while (!open.isEmpty()) {
+            int start = open.pop();
+            blockEnds[start] = parts.length;
+            problems.add("Unclosed " + name(parts[start]) + " at action " + (start + 1) + " (end of script)");
+        }
+
+        return new ScriptProgram(parts, blockEnds, entryPoints.stream().mapToInt(Integer::intValue).toArray(), List.copyOf(problems));
+    }
+
+    private static String name(ScriptPart part) {
+        return ((ScriptAction) part).getType().getName();
+    }
+
+    public ScriptPart get(int pos) {
+        return parts[pos];
+    }
+
+    public int size() {
+        return parts.length;
+    }
+
+    /**
+     * @return the position of the close bracket matching the block at {@code pos},
+     * {@link #size()} if the block runs to the end of the script, or {@link #UNCLOSED}
+     */
+    public int blockEnd(int pos) {
+        return blockEnds[pos];
+    }
+
+    /**
+     * @return the positions of all events in this program, in order
+     */
+    public int[] getEntryPoints() {
+        return entryPoints;
+    }
+
+    public List<String> getProblems() {
+        return problems;
+    }
+}
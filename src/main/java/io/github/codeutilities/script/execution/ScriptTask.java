@@ -9,11 +9,13 @@ public class ScriptTask {
     private final Event event;
     private boolean running;
     private final Script script;
+    private final ScriptProgram program;
 
-    public ScriptTask(ScriptPosStack stack, Event event, Script script) {
+    public ScriptTask(ScriptPosStack stack, Event event, Script script, ScriptProgram program) {
         this.stack = stack;
         this.event = event;
         this.script = script;
+        this.program = program;
         running = true;
     }
 
@@ -34,6 +36,10 @@ public class ScriptTask {
         return event;
     }
 
+    public ScriptProgram program() {
+        return program;
+    }
+
     public boolean isRunning() {
         return running;
     }
@@ -9,6 +9,7 @@ import io.github.codeutilities.script.values.ScriptValue;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.AbstractNbtNumber;
 import net.minecraft.nbt.NbtCompound;
@@ -34,16 +35,16 @@ public class ScriptValueItem {
             return NbtString.of(value.asText());
         } else if (value instanceof ScriptNumberValue) {
             return NbtDouble.of(value.asNumber());
-        } else if (value instanceof ScriptListValue) {
+        } else if (value instanceof ScriptListValue slv) {
             NbtList list = new NbtList();
-            for (ScriptValue item : value.asList()) {
+            for (ScriptValue item : slv.view()) {
                 list.add(nbtFromValue(item));
             }
             return list;
-        } else if (value instanceof ScriptDictionaryValue) {
+        } else if (value instanceof ScriptDictionaryValue sdv) {
             NbtCompound compound = new NbtCompound();
-            for (String key : value.asDictionary().keySet()) {
-                compound.put(key, nbtFromValue(value.asDictionary().get(key)));
+            for (Map.Entry<String, ScriptValue> entry : sdv.view().entrySet()) {
+                compound.put(entry.getKey(), nbtFromValue(entry.getValue()));
             }
             return compound;
         } else {
@@ -55,7 +56,7 @@ public class ScriptValueItem {
         if (nbt instanceof NbtString nbts) {
             return new ScriptTextValue(nbts.asString());
         } else if (nbt instanceof AbstractNbtNumber nbtn) {
-            return new ScriptNumberValue(nbtn.doubleValue());
+            return ScriptNumberValue.of(nbtn.doubleValue());
         } else if (nbt instanceof NbtList nbtl) {
             List<ScriptValue> list = new ArrayList<>();
             for (NbtElement item : nbtl) {
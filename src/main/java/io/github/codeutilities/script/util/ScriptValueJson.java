@@ -13,6 +13,7 @@ import io.github.codeutilities.script.values.ScriptUnknownValue;
 import io.github.codeutilities.script.values.ScriptValue;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 
 public class ScriptValueJson {
 
@@ -23,14 +24,14 @@ public class ScriptValueJson {
             return new JsonPrimitive(stv.asText());
         } else if (value instanceof ScriptListValue slv) {
             JsonArray array = new JsonArray();
-            for (ScriptValue sv : slv.asList()) {
+            for (ScriptValue sv : slv.view()) {
                 array.add(toJson(sv));
             }
             return array;
         } else if (value instanceof ScriptDictionaryValue sdv) {
             JsonObject object = new JsonObject();
-            for (String key : sdv.asDictionary().keySet()) {
-                object.add(key, toJson(sdv.asDictionary().get(key)));
+            for (Map.Entry<String, ScriptValue> entry : sdv.view().entrySet()) {
+                object.add(entry.getKey(), toJson(entry.getValue()));
             }
             return object;
         } else {
@@ -42,7 +43,7 @@ public class ScriptValueJson {
         if (element.isJsonPrimitive()) {
             JsonPrimitive primitive = element.getAsJsonPrimitive();
             if (primitive.isNumber()) {
-                return new ScriptNumberValue(primitive.getAsNumber().doubleValue());
+                return ScriptNumberValue.of(primitive.getAsNumber().doubleValue());
             } else if (primitive.isString()) {
                 return new ScriptTextValue(primitive.getAsString());
             } else {
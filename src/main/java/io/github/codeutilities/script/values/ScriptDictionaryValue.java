@@ -1,6 +1,8 @@
 package io.github.codeutilities.script.values;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 public class ScriptDictionaryValue extends ScriptValue {
 
@@ -10,11 +12,40 @@ public class ScriptDictionaryValue extends ScriptValue {
         this.value = value;
     }
 
+    /**
+     * @return the given value itself if it is a dictionary, otherwise a dictionary of its {@link ScriptValue#asDictionary()}
+     */
+    public static ScriptDictionaryValue from(ScriptValue value) {
+        if (value instanceof ScriptDictionaryValue dict) {
+            return dict;
+        }
+        return new ScriptDictionaryValue(value.asDictionary());
+    }
+
     @Override
     String typeName() {
         return "Dictionary";
     }
 
+    public int size() {
+        return value.size();
+    }
+
+    public boolean containsKey(String key) {
+        return value.containsKey(key);
+    }
+
+    public ScriptValue get(String key) {
+        return value.get(key);
+    }
+
+    /**
+     * @return a read-only view of the dictionary, without copying it
+     */
+    public Map<String, ScriptValue> view() {
+        return Collections.unmodifiableMap(value);
+    }
+
     @Override
     public HashMap<String, ScriptValue> asDictionary() {
         return new HashMap<>(value);
@@ -26,7 +57,7 @@ public class ScriptDictionaryValue extends ScriptValue {
             && !(other instanceof ScriptUnknownValue)) {
             return false;
         }
-        HashMap<String, ScriptValue> otherValue = other.asDictionary();
+        ScriptDictionaryValue otherValue = from(other);
         if (otherValue.size() != value.size()) {
             return false;
         }
@@ -1,14 +1,35 @@
 package io.github.codeutilities.script.values;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 public class ScriptListValue extends ScriptValue {
 
-    private final List<ScriptValue> value;
+    // Shared by every list value that was derived from this one by appending.
+    // It only ever grows, so the elements below a value's size never change.
+    private final ArrayList<ScriptValue> backing;
+    private final int size;
 
     public ScriptListValue(List<ScriptValue> value) {
-        this.value = value;
+        this(new ArrayList<>(value), value.size());
+    }
+
+    private ScriptListValue(ArrayList<ScriptValue> backing, int size) {
+        this.backing = backing;
+        this.size = size;
+    }
+
+    /**
+     * @return the given value itself if it is a list, otherwise a list of its {@link ScriptValue#asList()}
+     */
+    public static ScriptListValue from(ScriptValue value) {
+        if (value instanceof ScriptListValue list) {
+            return list;
+        }
+        return new ScriptListValue(value.asList());
     }
 
     @Override
@@ -16,9 +37,40 @@ public class ScriptListValue extends ScriptValue {
         return "List";
     }
 
+    public int size() {
+        return size;
+    }
+
+    public ScriptValue get(int index) {
+        Objects.checkIndex(index, size);
+        return backing.get(index);
+    }
+
+    /**
+     * Returns a list with the given value appended. The backing storage is shared
+     * unless something has already been appended to this list value.
+     */
+    public ScriptListValue append(ScriptValue value) {
+        if (backing.size() == size) {
+            backing.add(value);
+            return new ScriptListValue(backing, size + 1);
+        }
+        ArrayList<ScriptValue> copy = new ArrayList<>(size + 1);
+        copy.addAll(view());
+        copy.add(value);
+        return new ScriptListValue(copy, size + 1);
+    }
+
+    /**
+     * @return a read-only view of the list, without copying it
+     */
+    public List<ScriptValue> view() {
+        return new View();
+    }
+
     @Override
     public List<ScriptValue> asList() {
-        return new ArrayList<>(value);
+        return new ArrayList<>(view());
     }
 
     @Override
@@ -27,12 +79,12 @@ public class ScriptListValue extends ScriptValue {
             && !(other instanceof ScriptUnknownValue)) {
             return false;
         }
-        List<ScriptValue> otherList = other.asList();
-        if (otherList.size() != value.size()) {
+        ScriptListValue otherList = from(other);
+        if (otherList.size() != size) {
             return false;
         }
-        for (int i = 0; i < value.size(); i++) {
-            if (!value.get(i).valueEquals(otherList.get(i))) {
+        for (int i = 0; i < size; i++) {
+            if (!backing.get(i).valueEquals(otherList.get(i))) {
                 return false;
             }
         }
@@ -41,6 +93,19 @@ public class ScriptListValue extends ScriptValue {
 
     @Override
     public String asText() {
-        return value.toString();
+        return view().toString();
+    }
+
+    private class View extends AbstractList<ScriptValue> implements RandomAccess {
+
+        @Override
+        public ScriptValue get(int index) {
+            return ScriptListValue.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 }
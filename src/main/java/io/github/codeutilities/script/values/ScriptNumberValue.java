@@ -2,12 +2,34 @@ package io.github.codeutilities.script.values;
 
 public class ScriptNumberValue extends ScriptValue {
 
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final ScriptNumberValue[] CACHE = new ScriptNumberValue[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new ScriptNumberValue(i + CACHE_LOW);
+        }
+    }
+
     private final double value;
 
     public ScriptNumberValue(double value) {
         this.value = value;
     }
 
+    /**
+     * Like the constructor, but returns a shared instance for small whole numbers.
+     */
+    public static ScriptNumberValue of(double value) {
+        int i = (int) value;
+        if (i >= CACHE_LOW && i <= CACHE_HIGH
+            && Double.doubleToRawLongBits(i) == Double.doubleToRawLongBits(value)) {
+            return CACHE[i - CACHE_LOW];
+        }
+        return new ScriptNumberValue(value);
+    }
+
     @Override
     String typeName() {
         return "Number";
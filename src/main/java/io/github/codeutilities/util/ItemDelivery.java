@@ -0,0 +1,67 @@
+package io.github.codeutilities.util;
+
+import io.github.codeutilities.CodeUtilities;
+import io.github.codeutilities.util.chat.ChatUtil;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.LiteralText;
+
+/**
+ * Gives items through the creative inventory a few per tick, waiting for a free slot instead of losing items
+ * when the inventory is full. Has to be used on the client thread.
+ */
+public class ItemDelivery {
+
+    private static final int ITEMS_PER_TICK = 2;
+    private static final int FULL_WARNING_TICKS = 100;
+
+    private static final Deque<ItemStack> queue = new ArrayDeque<>();
+    private static Scheduler.ScheduledTask task = null;
+    private static long lastWarning = -FULL_WARNING_TICKS;
+
+    public static void give(ItemStack stack) {
+        queue.add(stack);
+        if (task == null) {
+            task = Scheduler.schedule(1, ItemDelivery::deliver);
+        }
+    }
+
+    public static int getPendingCount() {
+        return queue.size();
+    }
+
+    private static void deliver() {
+        task = null;
+        MinecraftClient mc = CodeUtilities.MC;
+
+        int given = 0;
+        while (!queue.isEmpty() && given < ITEMS_PER_TICK) {
+            // Waits while the player is not in creative or switching worlds
+            if (mc.player == null || mc.interactionManager == null || !mc.player.isCreative()) {
+                break;
+            }
+            PlayerInventory inventory = mc.player.getInventory();
+            int slot = inventory.getEmptySlot();
+            if (slot == -1) {
+                if (Scheduler.getTicks() - lastWarning >= FULL_WARNING_TICKS) {
+                    lastWarning = Scheduler.getTicks();
+                    ChatUtil.sendActionBar(new LiteralText("§cInventory full, " + queue.size() + " items are waiting for a free slot"));
+                }
+                break;
+            }
+
+            ItemStack stack = queue.poll();
+            // Hotbar slots come after the main inventory in the player screen handler
+            mc.interactionManager.clickCreativeStack(stack, slot < 9 ? slot + 36 : slot);
+            inventory.main.set(slot, stack);
+            given++;
+        }
+
+        if (!queue.isEmpty()) {
+            task = Scheduler.schedule(1, ItemDelivery::deliver);
+        }
+    }
+}
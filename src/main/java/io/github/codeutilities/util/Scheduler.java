@@ -3,28 +3,121 @@ package io.github.codeutilities.util;
 import io.github.codeutilities.event.TickEvent;
 import io.github.codeutilities.event.system.EventManager;
 import io.github.codeutilities.loader.Loadable;
-import java.util.ArrayList;
-import java.util.List;
-import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+/**
+ * Runs tasks after a number of ticks.
+ * Tasks are kept in a hashed timing wheel keyed on the tick they are due, so scheduling is O(1)
+ * and each tick only looks at the tasks in its own slot.
+ */
 public class Scheduler implements Loadable {
 
-    private static final List<MutablePair<Integer,Runnable>> tasks = new ArrayList<>();
+    private static final Logger LOGGER = LogManager.getLogger("Scheduler");
+    private static final int WHEEL_SIZE = 256;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private static final ScheduledTask[] heads = new ScheduledTask[WHEEL_SIZE];
+    private static final ScheduledTask[] tails = new ScheduledTask[WHEEL_SIZE];
+    private static long ticks = 0;
+    private static int pending = 0;
 
     @Override
     public void load() {
-        EventManager.getInstance().register(TickEvent.class, (e) -> {
-            for(MutablePair<Integer,Runnable> task : new ArrayList<>(tasks)) {
-                task.setLeft(task.getLeft() - 1);
-                if(task.getLeft() <= 0) {
-                    task.getRight().run();
-                    tasks.remove(task);
+        EventManager.getInstance().register(TickEvent.class, (e) -> tick());
+    }
+
+    private static void tick() {
+        ticks++;
+        int slot = (int) (ticks & MASK);
+        ScheduledTask task = heads[slot];
+        heads[slot] = null;
+        tails[slot] = null;
+
+        // Tasks scheduled while running these are always due later, so they never end up in this list
+        while (task != null) {
+            ScheduledTask next = task.next;
+            task.next = null;
+            if (task.state == ScheduledTask.CANCELLED) {
+                task = next;
+                continue;
+            }
+            if (task.due > ticks) {
+                append(slot, task);
+            } else {
+                task.state = ScheduledTask.DONE;
+                pending--;
+                try {
+                    task.runnable.run();
+                } catch (Exception err) {
+                    LOGGER.error("Error while running scheduled task", err);
                 }
             }
-        });
+            task = next;
+        }
+    }
+
+    private static void append(int slot, ScheduledTask task) {
+        if (tails[slot] == null) {
+            heads[slot] = task;
+        } else {
+            tails[slot].next = task;
+        }
+        tails[slot] = task;
+    }
+
+    /**
+     * Runs the given runnable after the given amount of ticks, but at the earliest on the next tick.
+     */
+    public static ScheduledTask schedule(int ticks, Runnable runnable) {
+        ScheduledTask task = new ScheduledTask(Scheduler.ticks + Math.max(ticks, 1), runnable);
+        append((int) (task.due & MASK), task);
+        pending++;
+        return task;
+    }
+
+    public static long getTicks() {
+        return ticks;
+    }
+
+    public static int getPendingCount() {
+        return pending;
     }
 
-    public static void schedule(int ticks, Runnable runnable) {
-        tasks.add(new MutablePair<>(ticks, runnable));
+    public static class ScheduledTask {
+
+        private static final int PENDING = 0;
+        private static final int DONE = 1;
+        private static final int CANCELLED = 2;
+
+        private final long due;
+        private final Runnable runnable;
+        private ScheduledTask next;
+        private int state = PENDING;
+
+        private ScheduledTask(long due, Runnable runnable) {
+            this.due = due;
+            this.runnable = runnable;
+        }
+
+        /**
+         * @return true if the task was still pending and will no longer run
+         */
+        public boolean cancel() {
+            if (state != PENDING) {
+                return false;
+            }
+            state = CANCELLED;
+            pending--;
+            return true;
+        }
+
+        public boolean isPending() {
+            return state == PENDING;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
     }
 }
@@ -0,0 +1,76 @@
+package io.github.codeutilities.util.chat.text;
+
+import io.github.codeutilities.features.sidedchat.ChatPattern;
+import io.github.codeutilities.util.ComponentUtil;
+import net.minecraft.text.Text;
+
+/**
+ * The different flattened forms of one chat message, each computed once on first use
+ * and shared by everything handling that message.
+ */
+public class MessageAnalysis {
+
+    private static MessageAnalysis last;
+
+    private final Text text;
+    private String stripped;
+    private String colorCodes;
+    private String formatted;
+    private ChatPattern pattern;
+
+    public MessageAnalysis(Text text) {
+        this.text = text;
+    }
+
+    /**
+     * A received message is passed on as the same {@link Text} instance from the packet handler
+     * through the chat events up to the chat hud, so consecutive lookups for it share one analysis.
+     * Only call this from the render thread.
+     */
+    public static MessageAnalysis of(Text text) {
+        MessageAnalysis analysis = last;
+        if (analysis == null || analysis.text != text) {
+            analysis = new MessageAnalysis(text);
+            last = analysis;
+        }
+        return analysis;
+    }
+
+    public Text getText() {
+        return text;
+    }
+
+    public String getStripped() {
+        if (stripped == null) {
+            stripped = text.getString();
+        }
+        return stripped;
+    }
+
+    /**
+     * @return the message with § color codes, see {@link TextUtil#textComponentToColorCodes(Text)}
+     */
+    public String getColorCodes() {
+        if (colorCodes == null) {
+            colorCodes = TextUtil.textComponentToColorCodes(text);
+        }
+        return colorCodes;
+    }
+
+    /**
+     * @return the message as formatted by {@link ComponentUtil#toFormattedString(Text)}
+     */
+    public String getFormatted() {
+        if (formatted == null) {
+            formatted = ComponentUtil.toFormattedString(text);
+        }
+        return formatted;
+    }
+
+    public ChatPattern getPattern() {
+        if (pattern == null) {
+            pattern = new ChatPattern(text);
+        }
+        return pattern;
+    }
+}
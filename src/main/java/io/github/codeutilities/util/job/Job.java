@@ -0,0 +1,84 @@
+package io.github.codeutilities.util.job;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * A piece of work run by the {@link JobManager}. The work reports its progress and checks for cancellation
+ * through this object, both are safe to use from any thread.
+ */
+public class Job {
+
+    private final String group;
+    private final String name;
+    private volatile String status = "Queued";
+    private volatile int done = 0;
+    private volatile int total = 0;
+    private volatile boolean cancelled = false;
+    private Thread thread = null;
+
+    Job(String group, String name) {
+        this.group = group;
+        this.name = name;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+        this.done = 0;
+        this.total = 0;
+    }
+
+    /**
+     * @param total Zero or less if the total is not known, then only the amount done is shown
+     */
+    public void setProgress(int done, int total) {
+        this.done = done;
+        this.total = total;
+    }
+
+    /**
+     * Stops the work by throwing a {@link CancellationException} if the job was cancelled.
+     */
+    public void checkCancelled() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException(name + " was cancelled");
+        }
+    }
+
+    public synchronized void cancel() {
+        cancelled = true;
+        // Wakes up the work if it is waiting, a job still in the queue stops as soon as it starts
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    synchronized void setThread(Thread thread) {
+        this.thread = thread;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getProgressText() {
+        int done = this.done;
+        int total = this.total;
+        if (total > 0) {
+            return status + " " + (int) (done * 100L / total) + "%";
+        }
+        return done > 0 ? status + " (" + done + ")" : status;
+    }
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(Job job) throws Exception;
+    }
+}
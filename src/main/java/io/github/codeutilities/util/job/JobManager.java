@@ -0,0 +1,190 @@
+package io.github.codeutilities.util.job;
+
+import io.github.codeutilities.CodeUtilities;
+import io.github.codeutilities.util.Scheduler;
+import io.github.codeutilities.util.chat.ChatUtil;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import net.minecraft.text.LiteralText;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs heavy work like loading schematics and songs in the background, a few jobs at a time.
+ * Jobs are submitted and finish on the client thread, their progress is shown in the action bar while they run.
+ */
+public class JobManager {
+
+    private static final Logger LOGGER = LogManager.getLogger("JobManager");
+    private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE_SIZE = 16;
+    private static final int PROGRESS_INTERVAL_TICKS = 10;
+    // Batches only fill half of the queue, so single jobs can still be submitted while they run
+    private static final int BATCH_QUEUE_LIMIT = QUEUE_SIZE / 2;
+    private static final int BATCH_INTERVAL_TICKS = 5;
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    // Only touched on the client thread
+    private static final List<Job> jobs = new ArrayList<>();
+    private static final Map<String, Deque<Runnable>> waiting = new LinkedHashMap<>();
+    private static Scheduler.ScheduledTask progressTask = null;
+    private static Scheduler.ScheduledTask batchTask = null;
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+            Thread t = new Thread(r, "CodeUtilities-Job-" + count.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs {@code work} in the background. Has to be called on the client thread.
+     * The result (or error) is handed to {@code done} (or {@code failed}) on the client thread, neither is called when the job is cancelled.
+     *
+     * @param group What kind of job this is, shown in messages and used by {@link #cancel(String)}
+     * @param name  What the job works on, usually a file name
+     * @return the job, or null if too many jobs are waiting already
+     */
+    public static <T> Job submit(String group, String name, Job.Work<T> work, Consumer<T> done, Consumer<Exception> failed) {
+        Job job = new Job(group, name);
+        try {
+            EXECUTOR.execute(() -> run(job, work, done, failed));
+        } catch (RejectedExecutionException e) {
+            ChatUtil.sendMessage(new LiteralText("§c[" + group + "] Too many files are loading already, try again later."));
+            return null;
+        }
+        jobs.add(job);
+        showProgress();
+        return job;
+    }
+
+    /**
+     * Submits many jobs of one group, a few at a time as room in the queue frees up. Has to be called on the client thread.
+     *
+     * @param submissions Each submits one job through {@link #submit}
+     */
+    public static void submitAll(String group, List<Runnable> submissions) {
+        waiting.computeIfAbsent(group, g -> new ArrayDeque<>()).addAll(submissions);
+        if (batchTask == null) {
+            submitWaiting();
+        }
+    }
+
+    private static void submitWaiting() {
+        batchTask = null;
+        Iterator<Deque<Runnable>> groups = waiting.values().iterator();
+        while (groups.hasNext()) {
+            Deque<Runnable> submissions = groups.next();
+            while (!submissions.isEmpty() && EXECUTOR.getQueue().size() < BATCH_QUEUE_LIMIT) {
+                submissions.poll().run();
+            }
+            if (submissions.isEmpty()) {
+                groups.remove();
+            }
+        }
+        if (!waiting.isEmpty()) {
+            batchTask = Scheduler.schedule(BATCH_INTERVAL_TICKS, JobManager::submitWaiting);
+        }
+    }
+
+    private static <T> void run(Job job, Job.Work<T> work, Consumer<T> done, Consumer<Exception> failed) {
+        T result = null;
+        Exception error = null;
+        job.setThread(Thread.currentThread());
+        try {
+            job.checkCancelled();
+            job.setStatus("Starting");
+            result = work.run(job);
+        } catch (Exception err) {
+            error = err;
+        } finally {
+            job.setThread(null);
+            // Clears an interrupt from a late cancel, so it does not carry over to the next job
+            Thread.interrupted();
+        }
+        T finalResult = result;
+        Exception finalError = error;
+        CodeUtilities.MC.execute(() -> {
+            jobs.remove(job);
+            if (job.isCancelled() || finalError instanceof CancellationException) {
+                ChatUtil.sendMessage(new LiteralText("§e[" + job.getGroup() + "] Cancelled loading §6" + job.getName() + "§e."));
+                return;
+            }
+            try {
+                if (finalError == null) {
+                    done.accept(finalResult);
+                } else {
+                    LOGGER.error("Job " + job.getGroup() + " for " + job.getName() + " failed", finalError);
+                    failed.accept(finalError);
+                }
+            } catch (Exception err) {
+                LOGGER.error("Error while finishing job " + job.getGroup() + " for " + job.getName(), err);
+            }
+        });
+    }
+
+    /**
+     * Cancels all jobs of the given group, including the ones of a batch that were not submitted yet.
+     * Has to be called on the client thread.
+     *
+     * @return the amount of jobs cancelled
+     */
+    public static int cancel(String group) {
+        Deque<Runnable> submissions = waiting.remove(group);
+        int cancelled = submissions == null ? 0 : submissions.size();
+        for (Job job : jobs) {
+            if (job.getGroup().equals(group) && !job.isCancelled()) {
+                job.cancel();
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    public static List<Job> getJobs() {
+        return jobs;
+    }
+
+    private static void showProgress() {
+        if (progressTask != null && progressTask.isPending()) {
+            return;
+        }
+        progressTask = Scheduler.schedule(PROGRESS_INTERVAL_TICKS, () -> {
+            progressTask = null;
+            if (jobs.isEmpty()) {
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            for (Job job : jobs) {
+                if (text.length() > 0) {
+                    text.append(" §8| ");
+                }
+                text.append("§e").append(job.getName()).append("§7: ").append(job.getProgressText());
+            }
+            int waitingJobs = waiting.values().stream().mapToInt(Deque::size).sum();
+            if (waitingJobs > 0) {
+                text.append(" §8| §7").append(waitingJobs).append(" more waiting");
+            }
+            ChatUtil.sendActionBar(new LiteralText(text.toString()));
+            showProgress();
+        });
+    }
+}
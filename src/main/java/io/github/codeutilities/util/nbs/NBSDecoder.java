@@ -5,17 +5,13 @@
 
 package io.github.codeutilities.util.nbs;
 
-import io.github.codeutilities.util.chat.ChatType;
-import io.github.codeutilities.util.chat.ChatUtil;
-
 import java.io.*;
-import java.math.BigDecimal;
 
 public class NBSDecoder {
 
     public static SongData parse(File songFile) throws IOException, OutdatedNBSException {
         try {
-            return parse(new FileInputStream(songFile), songFile);
+            return parse(new BufferedInputStream(new FileInputStream(songFile)), songFile);
         } catch (FileNotFoundException e) {
             e.printStackTrace();
         }
@@ -32,8 +28,8 @@ public class NBSDecoder {
         int loopTick = 0;
         int loopCount = 0;
         int vanillaInstruments = 9;
+        boolean legacyFormat = false;
 
-        StringBuilder stringBuilder = new StringBuilder();
         StringBuilder layerStringBuilder = new StringBuilder();
 
         DataInputStream dataInputStream = new DataInputStream(inputStream);
@@ -48,8 +44,7 @@ public class NBSDecoder {
                 throw new OutdatedNBSException();
             }
         } else {
-            ChatUtil.sendMessage("Looks like you are using original Note Block Studio. We recommend you to use Open Note Block Studio, which is an unofficial continuation of Note Block Studio!",
-                    ChatType.FAIL);
+            legacyFormat = true;
         }
         short layers = readShort(dataInputStream); //song height
         title = readString(dataInputStream); //title
@@ -73,16 +68,8 @@ public class NBSDecoder {
             loopTick = readShort(dataInputStream); //loop start tick
         }
 
-        short tick = -1;
-        String[][] addStringList = new String[layers][length + 1];
-        int[][] instrumentList = new int[layers][length + 1];
-        int[][] pitchList = new int[layers][length + 1];
-        int[][] finepitchList = new int[layers][length + 1];
-        int[][] velocityList = new int[layers][length + 1];
-        int[][] panningList = new int[layers][length + 1];
-        boolean[] columnExistence = new boolean[length + 1];
-        boolean[][] noteExistence = new boolean[layers][length + 1];
-        boolean firstNoted = false;
+        int tick = -1;
+        NoteList notes = new NoteList(length + 1);
 
         while (true) { //Read notes
             short t = readShort(dataInputStream);
@@ -91,9 +78,8 @@ public class NBSDecoder {
             }
             tick += t;
 
-            columnExistence[tick] = true;
-
             short layer = -1;
+            boolean hasNotes = false;
             while (true) {
                 short jumpLayers = readShort(dataInputStream);
                 if (jumpLayers == 0) {
@@ -111,21 +97,16 @@ public class NBSDecoder {
                     finepitch = readShort(dataInputStream);
                 }
 
-                //System.out.println("==NOTE #" + debugNoteCount + "==");
-                //System.out.println("  Tick: " + tick);
-                //System.out.println("  Instrument ID: " + instrument);
-                //System.out.println("  Jump to the next tick: " + tCopy);
-                //System.out.println("  Jump to the next layer: " + jumpLayers);
-
-                instrumentList[layer][tick] = instrument;
-                pitchList[layer][tick] = note;
-                finepitchList[layer][tick] = finepitch;
-                velocityList[layer][tick] = velocity;
-                panningList[layer][tick] = panning;
-                noteExistence[layer][tick] = true;
+                notes.add(tick, layer, instrument, note, velocity, panning, finepitch);
+                hasNotes = true;
+            }
+            if (!hasNotes) {
+                notes.addEmptyTick(tick);
             }
         }
 
+        byte[] layerVolumes = new byte[layers];
+        int[] layerPannings = new int[layers];
         for (int i = 0; i < layers; i++) { //Read layer data
 
             String name = readString(dataInputStream);
@@ -141,50 +122,18 @@ public class NBSDecoder {
                 panning = Byte.toUnsignedInt(dataInputStream.readByte());
             }
 
-            for (int currentTick = 0; currentTick < length + 1; currentTick++) {
-                boolean noteExists = noteExistence[i][currentTick];
-                if (noteExists) {
-
-                    int noteVelocity = velocityList[i][currentTick];
-                    int notePanning = panningList[i][currentTick];
-
-                    double averageVelocity = noteVelocity * (volume / 100d);
-                    double averagePanning = (notePanning + panning) / 2d;
-
-                    double preFinalPanning = (averagePanning - 100) / 50;
-
-                    String finalVelocity = new BigDecimal(averageVelocity).setScale(3, BigDecimal.ROUND_FLOOR).stripTrailingZeros().toPlainString();
-                    String finalPanning = new BigDecimal(preFinalPanning).setScale(3, BigDecimal.ROUND_FLOOR).stripTrailingZeros().toPlainString();
-
-                    //COOL DEBUG CODE STARTS FROM HERE
-                    //System.out.println("Pre-Final Panning: " + preFinalPanning);
-                    //System.out.println("Final Panning: " + finalPanning);
-                    //COOL DEBUG CODE ENDS HERE
-
-                    String finalString;
-                    if (preFinalPanning == 0) {
-                        finalString = "," + finalVelocity;
-                    } else {
-                        finalString = "," + finalVelocity + "," + finalPanning;
-                    }
-                    addStringList[i][currentTick] = finalString;
-                }
-            }
-
-            String finalLayerVolume = new BigDecimal(volume).setScale(3, BigDecimal.ROUND_FLOOR).stripTrailingZeros().toPlainString();
-            String finalLayerPanning = new BigDecimal(panning).setScale(3, BigDecimal.ROUND_FLOOR).stripTrailingZeros().toPlainString();
-
-            layerStringBuilder.append("=").append(finalLayerVolume).append(",").append(finalLayerPanning);
+            layerVolumes[i] = volume;
+            layerPannings[i] = panning;
+            layerStringBuilder.append("=").append(volume).append(",").append(panning);
         }
 
         int customInstruments = 0;
         customInstruments = dataInputStream.readByte();
 
-        int[] customPitchList = new int[customInstruments];
+        int[] customPitchList = new int[Math.max(customInstruments, 0)];
 
         if (customInstruments >= 1) {
             for (int i = 0; i < customInstruments; i++) {
-                int instrumentOffset = vanillaInstruments + customInstruments;
                 int instrumentPitch = 0;
 
                 readString(dataInputStream); //Instrument name
@@ -198,60 +147,15 @@ public class NBSDecoder {
             }
         }
 
-        //EPIC DEBUG CODE STARTS FROM HERE
-        //System.out.println("List length: " + jumpTickList.size());
-        //System.out.println("Array length: " + jumpTickArray.length);
-        //EPIC DEBUG CODE ENDS HERE
-
         dataInputStream.close();
 
-        for (int currentTick = 0; currentTick < length + 1; currentTick++) {
-            boolean columnExists = columnExistence[currentTick];
-            if (columnExists) {
-                StringBuilder columnStringBuilder = new StringBuilder();
-                if (!firstNoted) {
-                    columnStringBuilder.append(currentTick + 1);
-                    firstNoted = true;
-                } else {
-                    columnStringBuilder.append("=").append(currentTick + 1);
-                }
-                boolean firstAppend = true;
-                for (int i = 0; i < layers; i++) {
-                    boolean noteExists = noteExistence[i][currentTick];
-                    if (noteExists) {
-                        String laterNoteString = addStringList[i][currentTick];
-
-                        int noteInstrument = instrumentList[i][currentTick];
-                        int noteKey = pitchList[i][currentTick];
-                        int noteFinePitch = finepitchList[i][currentTick];
-                        int noteKeyOffset = 0;
-
-                        //ANOTHER EPIC DEBUG CODE STARTS FROM HERE
-                        //System.out.println("Note ID: " + noteID);
-                        //ANOTHER EPIC DEBUG CODE ENDS HERE
-
-                        if (noteInstrument >= vanillaInstruments) {
-                            int instrumentId = noteInstrument - vanillaInstruments;
-                            noteKeyOffset = customPitchList[instrumentId] - 45;
-                        }
-                        if (firstAppend) {
-                            columnStringBuilder.append(":").append(noteInstrument + 1).append(",").append(getMinecraftPitch(noteKey + (double) noteFinePitch / 100d, noteKeyOffset)).append(laterNoteString);
-                            firstAppend = false;
-                        } else {
-                            columnStringBuilder.append(";").append(noteInstrument + 1).append(",").append(getMinecraftPitch(noteKey + (double) noteFinePitch / 100d, noteKeyOffset)).append(laterNoteString);
-                        }
-                    }
-                }
-                stringBuilder.append(columnStringBuilder);
-            }
-        }
+        notes.sort();
+        notes.setLayers(layerVolumes, layerPannings);
+        notes.setInstruments(vanillaInstruments, customPitchList);
 
-        //YET ANOTHER EPIC DEBUG CODE STARTS FROM HERE
-        //System.out.println("Note Data: " + stringBuilder.toString());
-        //System.out.println("Layer Data: " + layerStringBuilder.toString());
-        //YET ANOTHER EPIC DEBUG CODE ENDS HERE
-
-        return new SongData(title, author, speed, (int) Math.ceil((length + 1.0) / (4 * timeSignature)) * (4 * timeSignature), stringBuilder.toString(), file, layerStringBuilder.toString(), (loopTick + 1), loopCount, customInstruments);
+        SongData song = new SongData(title, author, speed, (int) Math.ceil((length + 1.0) / (4 * timeSignature)) * (4 * timeSignature), notes, file, layerStringBuilder.toString(), (loopTick + 1), loopCount, customInstruments);
+        song.setLegacyFormat(legacyFormat);
+        return song;
     }
 
     private static short readShort(DataInputStream dataInputStream) throws IOException {
@@ -281,19 +185,6 @@ public class NBSDecoder {
         return builder.toString();
     }
 
-    private static int getMinecraftPitch(double key, double offset) {
-
-        if (key < 33) key -= 9;
-        else if (key > 57) key -= 57;
-        else key -= 33;
-
-        key += offset;
-
-        double finalValue = (0.5 * (Math.pow(2, (key / 12)))) * 1000;
-
-        return (int) finalValue;
-    }
-
     public SongData parse(InputStream inputStream) throws IOException, OutdatedNBSException {
         return parse(inputStream, null);
     }
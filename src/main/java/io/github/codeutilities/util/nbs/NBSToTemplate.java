@@ -1,13 +1,19 @@
 package io.github.codeutilities.util.nbs;
 
+import io.github.codeutilities.util.template.TemplateUtils;
+import io.github.codeutilities.util.template.TemplateWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.math.BigDecimal;
 
 public class NBSToTemplate {
 
-    private static final String SONG_PARSER_VERSION = "4";
+    public static final String SONG_PARSER_VERSION = "4";
     private static final String SONG_NBS_FORMAT_VERSION = "4";
+    private static final int MAX_TEXT_LENGTH = 1930;
+    private static final int TEXTS_PER_CHEST = 26;
 
-    final String song;
+    final NoteList song;
     final String filename;
     final String layers;
     final String version;
@@ -35,13 +41,18 @@ public class NBSToTemplate {
         this.customInstrumentCount = song.getCustomInstrumentCount();
     }
 
-    public String convert() {
-        String[] songData = song.split("=");
-        StringBuilder currentNotes = new StringBuilder();
-        StringBuilder code = new StringBuilder();
-        StringBuilder currentBlock = new StringBuilder();
-        StringBuilder instList = new StringBuilder();
+    /**
+     * @return the code data of the template, compressed like {@link TemplateUtils#compressTemplate}
+     */
+    public String toCodeData() throws IOException {
+        String[] codeData = new String[1];
+        try (TemplateWriter out = new TemplateWriter(Integer.MAX_VALUE, data -> codeData[0] = data)) {
+            convert(out);
+        }
+        return codeData[0];
+    }
 
+    public void convert(TemplateWriter out) throws IOException {
         String songTempo = new BigDecimal(this.speed).stripTrailingZeros().toPlainString();
 
         if (name.length() == 0) {
@@ -53,82 +64,15 @@ public class NBSToTemplate {
         }
         if (author.length() == 0) author = "N/A";
 
-        code.append(String.format("{\"id\":\"block\",\"block\":\"func\",\"args\":{\"items\":[{\"item\":{\"id\":\"bl_tag\",\"data\":{\"option\":\"False\",\"tag\":\"Is Hidden\",\"action\":\"dynamic\",\"block\":\"func\"}},\"slot\":26}]},\"data\":\"%s\"},", name));
-
-        int slot = 1;
-        int chestCount = 1;
-        boolean chestInited = false;
-        int noteCount = 0;
-        boolean finalNote = false;
-
-        for (int i = 0; i < songData.length; i++) {
-            boolean closeChest = false;
-            if (slot == 1) {
-                if (!chestInited) {
-                    chestInited = true;
-                    currentBlock.append("{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[{\"item\":{\"id\":\"var\",\"data\":{\"name\":\"notes\",\"scope\":\"local\"}},\"slot\":0}");
-                }
-            }
-
-            if (slot >= 27) {
-                closeChest = true;
-            }
+        out.writeBlock("{\"id\":\"block\",\"block\":\"func\",\"args\":{\"items\":[{\"item\":{\"id\":\"bl_tag\",\"data\":{\"option\":\"False\",\"tag\":\"Is Hidden\",\"action\":\"dynamic\",\"block\":\"func\"}},\"slot\":26}]},\"data\":\"" + name + "\"}");
 
-            if (!closeChest) {
-                String currentNote = songData[i];
-                String revertString = currentNotes.toString();
-
-                if (noteCount == 0) {
-                    currentNotes.append(currentNote);
-                } else {
-                    currentNotes.append("=").append(currentNote);
-                }
-                noteCount++;
-
-                if (currentNotes.length() > 1930) {
-                    currentNotes = new StringBuilder(revertString);
-                    currentBlock.append(String.format(",{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":%d}", currentNotes, slot));
-                    currentNotes.setLength(0);
-                    noteCount = 0;
-                    finalNote = true;
-                    i -= 1;
-                    slot++;
-                }
-
-                if (i >= songData.length - 1) {
-                    if (!finalNote) {
-                        currentBlock.append(String.format(",{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":%d}", currentNotes, slot));
-                        currentNotes.setLength(0);
-                    }
-                    closeChest = true;
-                }
-                finalNote = false;
-            }
-            if (closeChest) {
-                String varActionType;
-                if (chestCount == 1) {
-                    varActionType = "CreateList";
-                } else {
-                    varActionType = "AppendValue";
-                }
-
-                currentBlock.append(String.format("]},\"action\":\"%s\"},", varActionType));
-                code.append(currentBlock);
-                currentBlock.setLength(0);
-                currentNotes.setLength(0);
-
-                chestInited = false;
-                noteCount = 0;
-                finalNote = false;
-                chestCount++;
-                slot = 1;
-            }
-        }
+        writeNotes(out);
 
         //CreateList: instrumentNames
         if (customInstrumentCount == 0) {
-            code.append("{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[{\"item\":{\"id\":\"var\",\"data\":{\"name\":\"instrumentNames\",\"scope\":\"local\"}},\"slot\":0},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Harp\"}},\"slot\":1},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bass\"}},\"slot\":2},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bass Drum\"}},\"slot\":3},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Snare Drum\"}},\"slot\":4},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Click\"}},\"slot\":5},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Guitar\"}},\"slot\":6},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Flute\"}},\"slot\":7},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bell\"}},\"slot\":8},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Chime\"}},\"slot\":9},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Xylophone\"}},\"slot\":10},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Iron Xylophone\"}},\"slot\":11},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Cow Bell\"}},\"slot\":12},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Didgeridoo\"}},\"slot\":13},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bit\"}},\"slot\":14},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Banjo\"}},\"slot\":15},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Pling\"}},\"slot\":16}]},\"action\":\"CreateList\"},");
+            out.writeBlock("{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[{\"item\":{\"id\":\"var\",\"data\":{\"name\":\"instrumentNames\",\"scope\":\"local\"}},\"slot\":0},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Harp\"}},\"slot\":1},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bass\"}},\"slot\":2},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bass Drum\"}},\"slot\":3},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Snare Drum\"}},\"slot\":4},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Click\"}},\"slot\":5},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Guitar\"}},\"slot\":6},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Flute\"}},\"slot\":7},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bell\"}},\"slot\":8},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Chime\"}},\"slot\":9},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Xylophone\"}},\"slot\":10},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Iron Xylophone\"}},\"slot\":11},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Cow Bell\"}},\"slot\":12},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Didgeridoo\"}},\"slot\":13},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bit\"}},\"slot\":14},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Banjo\"}},\"slot\":15},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Pling\"}},\"slot\":16}]},\"action\":\"CreateList\"}");
         } else {
+            StringBuilder instList = new StringBuilder();
             instList.append("{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[{\"item\":{\"id\":\"var\",\"data\":{\"name\":\"instrumentNames\",\"scope\":\"local\"}},\"slot\":0},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Harp\"}},\"slot\":1},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bass\"}},\"slot\":2},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bass Drum\"}},\"slot\":3},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Snare Drum\"}},\"slot\":4},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Click\"}},\"slot\":5},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Guitar\"}},\"slot\":6},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Flute\"}},\"slot\":7},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bell\"}},\"slot\":8},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Chime\"}},\"slot\":9},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Xylophone\"}},\"slot\":10},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Iron Xylophone\"}},\"slot\":11},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Cow Bell\"}},\"slot\":12},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Didgeridoo\"}},\"slot\":13},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Bit\"}},\"slot\":14},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Banjo\"}},\"slot\":15},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"Pling\"}},\"slot\":16},");
 
             int currentSlot;
@@ -142,13 +86,75 @@ public class NBSToTemplate {
                 }
                 currentSlot++;
             }
-            instList.append("]},\"action\":\"CreateList\"},");
-            code.append(instList);
+            instList.append("]},\"action\":\"CreateList\"}");
+            out.writeBlock(instList.toString());
         }
 
         //CreateList: songData
-        code.append(String.format("{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[{\"item\":{\"id\":\"var\",\"data\":{\"name\":\"songData\",\"scope\":\"local\"}},\"slot\":0},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":1},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":2},{\"item\":{\"id\":\"num\",\"data\":{\"name\":\"%s\"}},\"slot\":3}, {\"item\":{\"id\":\"num\",\"data\":{\"name\":\"%d\"}},\"slot\":4}, {\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":5}, {\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":6},{\"item\":{\"id\":\"num\",\"data\":{\"name\":\"%d\"}},\"slot\":7},{\"item\":{\"id\":\"num\",\"data\":{\"name\":\"%d\"}},\"slot\":8}]},\"action\":\"CreateList\"}", name, author, songTempo, length, layers, version, loopTick, loopCount));
+        out.writeBlock(String.format("{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[{\"item\":{\"id\":\"var\",\"data\":{\"name\":\"songData\",\"scope\":\"local\"}},\"slot\":0},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":1},{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":2},{\"item\":{\"id\":\"num\",\"data\":{\"name\":\"%s\"}},\"slot\":3}, {\"item\":{\"id\":\"num\",\"data\":{\"name\":\"%d\"}},\"slot\":4}, {\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":5}, {\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"%s\"}},\"slot\":6},{\"item\":{\"id\":\"num\",\"data\":{\"name\":\"%d\"}},\"slot\":7},{\"item\":{\"id\":\"num\",\"data\":{\"name\":\"%d\"}},\"slot\":8}]},\"action\":\"CreateList\"}", name, author, songTempo, length, layers, version, loopTick, loopCount));
+
+    }
+
+    /**
+     * Writes the notes into chests of 26 texts, each text holding as many columns as fit in {@value #MAX_TEXT_LENGTH} characters.
+     */
+    private void writeNotes(TemplateWriter out) throws IOException {
+        StringBuilder text = new StringBuilder();
+        StringBuilder column = new StringBuilder();
+        ChestWriter chests = new ChestWriter(out);
+
+        int i = 0;
+        while (i < song.size()) {
+            column.setLength(0);
+            int next = song.appendColumn(column, i);
+
+            // A column longer than a whole text still gets a text of its own
+            if (text.length() > 0 && text.length() + 1 + column.length() > MAX_TEXT_LENGTH) {
+                chests.writeText(text);
+                text.setLength(0);
+            }
+            if (text.length() > 0) {
+                text.append('=');
+            }
+            text.append(column);
+            i = next;
+        }
+        chests.writeText(text);
+        chests.close();
+    }
 
-        return "{\"blocks\": [" + code + "]}";
+    private static class ChestWriter {
+        private final TemplateWriter out;
+        private Writer json = null;
+        private int chestCount = 0;
+        private int slot = 1;
+
+        private ChestWriter(TemplateWriter out) {
+            this.out = out;
+        }
+
+        private void writeText(CharSequence text) throws IOException {
+            if (json == null) {
+                json = out.beginBlock();
+                json.write("{\"id\":\"block\",\"block\":\"set_var\",\"args\":{\"items\":[{\"item\":{\"id\":\"var\",\"data\":{\"name\":\"notes\",\"scope\":\"local\"}},\"slot\":0}");
+            }
+            json.write(",{\"item\":{\"id\":\"txt\",\"data\":{\"name\":\"");
+            json.append(text);
+            json.write("\"}},\"slot\":" + slot + "}");
+            if (++slot > TEXTS_PER_CHEST) {
+                close();
+            }
+        }
+
+        private void close() throws IOException {
+            if (json == null) {
+                return;
+            }
+            json.write("]},\"action\":\"" + (chestCount == 0 ? "CreateList" : "AppendValue") + "\"}");
+            out.endBlock();
+            json = null;
+            chestCount++;
+            slot = 1;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,221 @@
+package io.github.codeutilities.util.nbs;
+
+import java.util.Arrays;
+
+/**
+ * The notes of a song ordered by tick and layer, each kept as a few primitives.
+ * Only ticks that have notes take up space, unlike a [layer][tick] grid.
+ * A column, the notes of one tick, is written in the note data format of the music player, see {@link #appendColumn}.
+ */
+public class NoteList {
+
+    // Layer of a tick that is in the song but has no notes
+    private static final short NO_NOTE = -1;
+
+    private int size = 0;
+    private int[] ticks;
+    private short[] layers;
+    private byte[] instruments;
+    private byte[] keys;
+    private short[] finePitches;
+    private byte[] velocities;
+    private byte[] pannings;
+
+    private byte[] layerVolumes = new byte[0];
+    private int[] layerPannings = new int[0];
+    private int vanillaInstruments = 9;
+    private int[] customPitches = new int[0];
+
+    public NoteList(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ticks = new int[capacity];
+        layers = new short[capacity];
+        instruments = new byte[capacity];
+        keys = new byte[capacity];
+        finePitches = new short[capacity];
+        velocities = new byte[capacity];
+        pannings = new byte[capacity];
+    }
+
+    public void add(int tick, int layer, byte instrument, byte key, byte velocity, int panning, short finePitch) {
+        if (size == ticks.length) {
+            grow();
+        }
+        ticks[size] = tick;
+        layers[size] = (short) layer;
+        instruments[size] = instrument;
+        keys[size] = key;
+        finePitches[size] = finePitch;
+        velocities[size] = velocity;
+        pannings[size] = (byte) panning;
+        size++;
+    }
+
+    public void addEmptyTick(int tick) {
+        add(tick, NO_NOTE, (byte) 0, (byte) 0, (byte) 0, 0, (short) 0);
+    }
+
+    void setLayers(byte[] volumes, int[] pannings) {
+        this.layerVolumes = volumes;
+        this.layerPannings = pannings;
+    }
+
+    void setInstruments(int vanillaInstruments, int[] customPitches) {
+        this.vanillaInstruments = vanillaInstruments;
+        this.customPitches = customPitches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Orders the notes by tick and layer, keeping the last of two notes at the same place.
+     * Notes in a file are already in that order, so this usually only checks.
+     */
+    void sort() {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = compare(i - 1, i) < 0;
+        }
+        if (sorted) {
+            return;
+        }
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        // Stable, so of two notes at the same place the one read last stays last
+        Arrays.sort(order, this::compare);
+
+        NoteList sortedList = new NoteList(size);
+        for (int i = 0; i < size; i++) {
+            int n = order[i];
+            if (i + 1 < size && compare(n, order[i + 1]) == 0) {
+                continue;
+            }
+            sortedList.add(ticks[n], layers[n], instruments[n], keys[n], velocities[n], Byte.toUnsignedInt(pannings[n]), finePitches[n]);
+        }
+        this.size = sortedList.size;
+        this.ticks = sortedList.ticks;
+        this.layers = sortedList.layers;
+        this.instruments = sortedList.instruments;
+        this.keys = sortedList.keys;
+        this.finePitches = sortedList.finePitches;
+        this.velocities = sortedList.velocities;
+        this.pannings = sortedList.pannings;
+    }
+
+    private int compare(int a, int b) {
+        int c = Integer.compare(ticks[a], ticks[b]);
+        return c != 0 ? c : Short.compare(layers[a], layers[b]);
+    }
+
+    /**
+     * Writes the column starting at note {@code start} as {@code tick:note;note;...}, where a note is
+     * {@code instrument,pitch,velocity} followed by {@code ,panning} unless the note is centered.
+     *
+     * @return the index of the first note of the next column
+     */
+    public int appendColumn(StringBuilder out, int start) {
+        int tick = ticks[start];
+        out.append(tick + 1);
+        int i = start;
+        boolean first = true;
+        for (; i < size && ticks[i] == tick; i++) {
+            int layer = layers[i];
+            if (layer == NO_NOTE) {
+                continue;
+            }
+            out.append(first ? ':' : ';');
+            first = false;
+            appendNote(out, i, layer);
+        }
+        return i;
+    }
+
+    private void appendNote(StringBuilder out, int i, int layer) {
+        int instrument = instruments[i];
+        int noteKeyOffset = 0;
+        if (instrument >= vanillaInstruments) {
+            int custom = instrument - vanillaInstruments;
+            noteKeyOffset = (custom < customPitches.length ? customPitches[custom] : 45) - 45;
+        }
+
+        // Notes outside the layers of the song play at full volume in the center
+        int volume = layer < layerVolumes.length ? layerVolumes[layer] : 100;
+        int layerPanning = layer < layerPannings.length ? layerPannings[layer] : 100;
+
+        double averageVelocity = velocities[i] * (volume / 100d);
+        double averagePanning = (Byte.toUnsignedInt(pannings[i]) + layerPanning) / 2d;
+        double finalPanning = (averagePanning - 100) / 50;
+
+        out.append(instrument + 1).append(',')
+                .append(getMinecraftPitch(keys[i] + (double) finePitches[i] / 100d, noteKeyOffset))
+                .append(',');
+        appendFloor3(out, averageVelocity);
+        if (finalPanning != 0) {
+            out.append(',');
+            appendFloor3(out, finalPanning);
+        }
+    }
+
+    private static int getMinecraftPitch(double key, double offset) {
+
+        if (key < 33) key -= 9;
+        else if (key > 57) key -= 57;
+        else key -= 33;
+
+        key += offset;
+
+        double finalValue = (0.5 * (Math.pow(2, (key / 12)))) * 1000;
+
+        return (int) finalValue;
+    }
+
+    /**
+     * Appends the value rounded down to 3 decimals, without trailing zeros.
+     * Rounds the exact value of the double like {@code BigDecimal#setScale(3, RoundingMode.FLOOR)}, so 0.7 is written as 0.699.
+     */
+    static void appendFloor3(StringBuilder out, double value) {
+        long thousandths = (long) Math.floor(value * 1000);
+        // value * 1000 is rounded, fma tells the sign of the exact difference
+        if (Math.fma(value, 1000, -thousandths) < 0) {
+            thousandths--;
+        } else if (Math.fma(value, 1000, -(thousandths + 1)) >= 0) {
+            thousandths++;
+        }
+
+        if (thousandths < 0) {
+            out.append('-');
+            thousandths = -thousandths;
+        }
+        out.append(thousandths / 1000);
+        int fraction = (int) (thousandths % 1000);
+        if (fraction != 0) {
+            out.append('.');
+            if (fraction < 100) out.append('0');
+            if (fraction < 10) out.append('0');
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+            }
+            out.append(fraction);
+        }
+    }
+
+    private void grow() {
+        int capacity = ticks.length + (ticks.length >> 1);
+        ticks = Arrays.copyOf(ticks, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+        instruments = Arrays.copyOf(instruments, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        finePitches = Arrays.copyOf(finePitches, capacity);
+        velocities = Arrays.copyOf(velocities, capacity);
+        pannings = Arrays.copyOf(pannings, capacity);
+    }
+}
@@ -11,9 +11,11 @@ public class SongData {
     String author;
     float speed;
     String fileName;
-    String notes;
+    NoteList notes;
+    // Saved by the original Note Block Studio instead of Open Note Block Studio
+    boolean legacyFormat;
 
-    public SongData(String name, String author, float speed, int length, String notes, String fileName, String layers, int loopTick, int loopCount, int customInstrumentCount) {
+    public SongData(String name, String author, float speed, int length, NoteList notes, String fileName, String layers, int loopTick, int loopCount, int customInstrumentCount) {
 //        System.out.println("Name"+name);
 //        System.out.println("Author"+author);
 //        System.out.println("Speed"+speed);
@@ -64,14 +66,22 @@ public class SongData {
         return length;
     }
 
-    public String getNotes() {
+    public NoteList getNotes() {
         return notes;
     }
 
-    public void setNotes(String notes) {
+    public void setNotes(NoteList notes) {
         this.notes = notes;
     }
 
+    public boolean isLegacyFormat() {
+        return legacyFormat;
+    }
+
+    public void setLegacyFormat(boolean legacyFormat) {
+        this.legacyFormat = legacyFormat;
+    }
+
     public String getFileName() {
         return fileName;
     }
@@ -0,0 +1,122 @@
+package io.github.codeutilities.util.template;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps the code data of templates generated from a file on disk, keyed by a hash of the file contents,
+ * so loading an unchanged file again does not have to decode it and compress the templates again.
+ * Safe to use from several jobs at once.
+ */
+public class TemplateCache {
+
+    private static final Logger LOGGER = LogManager.getLogger("TemplateCache");
+
+    private final Path folder;
+
+    public TemplateCache(Path folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Hashes the file together with everything else the templates depend on.
+     *
+     * @param version The version of the generator, so templates of an older generator are not used
+     */
+    public String key(Path file, String version) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        digest.update((version + "\n" + file.getFileName() + "\n").getBytes(StandardCharsets.UTF_8));
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @return the cached templates, or null if there are none or they can't be read
+     */
+    public Entry get(String key) {
+        try {
+            JsonObject json = JsonParser.parseString(Files.readString(path(key))).getAsJsonObject();
+            List<String> templates = new ArrayList<>();
+            for (JsonElement template : json.getAsJsonArray("templates")) {
+                templates.add(template.getAsString());
+            }
+            return new Entry(getString(json, "name"), getString(json, "author"), templates);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (Exception e) {
+            LOGGER.warn("Ignoring broken cache entry " + key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the templates, a failure is only logged since the templates were made already.
+     */
+    public void put(String key, Entry entry) {
+        JsonObject json = new JsonObject();
+        json.addProperty("name", entry.name());
+        json.addProperty("author", entry.author());
+        JsonArray templates = new JsonArray();
+        entry.templates().forEach(templates::add);
+        json.add("templates", templates);
+
+        Path target = path(key);
+        try {
+            Files.createDirectories(folder);
+            // Written next to the entry first, so a load at the same time never reads half a file
+            Path temp = Files.createTempFile(folder, key, ".tmp");
+            try {
+                Files.writeString(temp, json.toString());
+                try {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to cache templates " + key, e);
+        }
+    }
+
+    private static String getString(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private Path path(String key) {
+        return folder.resolve(key + ".json");
+    }
+
+    public record Entry(String name, String author, List<String> templates) {
+    }
+}
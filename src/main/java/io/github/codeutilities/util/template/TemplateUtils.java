@@ -41,15 +41,21 @@ public class TemplateUtils {
 
     public static void compressTemplateNBT(ItemStack stack, String name, String author, String template) {
         try {
-            byte[] b64 = CompressionUtil.toBase64(CompressionUtil.toGZIP(template.getBytes(StandardCharsets.UTF_8)));
-            String exported = new String(b64);
-            applyRawTemplateNBT(stack, name, author, exported);
+            applyRawTemplateNBT(stack, name, author, compressTemplate(template));
         } catch (IOException e) {
             e.printStackTrace();
         }
 
     }
 
+    /**
+     * @return the template JSON as code data, GZIP compressed and Base64 encoded
+     */
+    public static String compressTemplate(String template) throws IOException {
+        byte[] b64 = CompressionUtil.toBase64(CompressionUtil.toGZIP(template.getBytes(StandardCharsets.UTF_8)));
+        return new String(b64);
+    }
+
     public static JsonObject fromItemStack(ItemStack stack) {
         NbtCompound tag = stack.getNbt();
         NbtCompound publicBukkitNBT = tag.getCompound("PublicBukkitValues");
@@ -0,0 +1,80 @@
+package io.github.codeutilities.util.template;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes code blocks straight into the GZIP compressed, Base64 encoded code data of templates,
+ * starting a new template every {@code blocksPerTemplate} blocks.
+ * Only the compressed form of a template is held in memory, never its JSON.
+ */
+public class TemplateWriter implements Closeable {
+
+    private final int blocksPerTemplate;
+    private final Consumer<String> output;
+
+    private ByteArrayOutputStream buffer;
+    private Writer writer;
+    private int blocks = 0;
+
+    /**
+     * @param output Receives the code data of every finished template, in order
+     */
+    public TemplateWriter(int blocksPerTemplate, Consumer<String> output) {
+        this.blocksPerTemplate = blocksPerTemplate;
+        this.output = output;
+    }
+
+    /**
+     * Starts the next code block. The JSON of the block is written to the returned writer,
+     * followed by a call to {@link #endBlock()}.
+     */
+    public Writer beginBlock() throws IOException {
+        if (writer == null) {
+            buffer = new ByteArrayOutputStream();
+            writer = new OutputStreamWriter(new GZIPOutputStream(Base64.getEncoder().wrap(buffer), 8192),
+                    StandardCharsets.UTF_8);
+            writer.write("{\"blocks\":[");
+        } else {
+            writer.write(',');
+        }
+        return writer;
+    }
+
+    public void endBlock() throws IOException {
+        if (++blocks == blocksPerTemplate) {
+            finishTemplate();
+        }
+    }
+
+    public void writeBlock(String json) throws IOException {
+        beginBlock().write(json);
+        endBlock();
+    }
+
+    private void finishTemplate() throws IOException {
+        writer.write("]}");
+        writer.close();
+        output.accept(buffer.toString(StandardCharsets.ISO_8859_1));
+        buffer = null;
+        writer = null;
+        blocks = 0;
+    }
+
+    /**
+     * Finishes the last template, if it has any blocks.
+     */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            finishTemplate();
+        }
+    }
+}